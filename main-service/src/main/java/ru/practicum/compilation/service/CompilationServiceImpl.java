@@ -5,7 +5,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.client.StatClient;
 import ru.practicum.compilation.dto.CompilationDto;
 import ru.practicum.compilation.dto.NewCompilationDto;
 import ru.practicum.compilation.dto.PublicCompilationParams;
@@ -15,17 +14,12 @@ import ru.practicum.compilation.model.Compilation;
 import ru.practicum.compilation.model.QCompilation;
 import ru.practicum.compilation.repository.CompilationRepository;
 import ru.practicum.event.dto.EventShortDto;
-import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.Event;
 import ru.practicum.event.repository.EventRepository;
-import ru.practicum.rating.repository.RatingRepository;
+import ru.practicum.event.service.EventCounters;
+import ru.practicum.event.service.EventEnrichmentService;
 import ru.practicum.exeption.NotFoundException;
-import ru.practicum.request.dto.EventCountByRequest;
-import ru.practicum.request.repository.RequestRepository;
-import ru.practicum.stat.StatsParams;
-import ru.practicum.stat.ViewStatsDTO;
 
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -36,10 +30,7 @@ import java.util.stream.StreamSupport;
 public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
-    private final RequestRepository requestRepository;
-    private final StatClient statClient;
-    private final EventMapper eventMapper;
-    private final RatingRepository ratingRepository;
+    private final EventEnrichmentService eventEnrichmentService;
 
     private final CompilationMapper compilationMapper;
 
@@ -57,41 +48,7 @@ public class CompilationServiceImpl implements CompilationService {
     }
 
     private List<EventShortDto> getEventShortDtos(Compilation saved) {
-        List<Event> compEvents = new ArrayList<>(saved.getEvents());
-
-        LocalDateTime earliestPublishedDate = compEvents.stream()
-                .map(Event::getPublishedOn)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo)
-                .orElse(LocalDateTime.now().minusYears(100));
-
-        List<EventCountByRequest> eventsIdWithViews = requestRepository.findConfirmedRequestWithoutLimitCheck(compEvents);
-
-        List<String> uris = eventsIdWithViews.stream().map(ev -> "/events/" + ev.getEventId()).toList();
-
-        StatsParams statsParams = StatsParams.builder()
-                .uris(uris)
-                .unique(true)
-                .start(earliestPublishedDate)
-                .end(LocalDateTime.now())
-                .build();
-
-        List<ViewStatsDTO> viewStatsDTOS = statClient.getStats(statsParams);
-
-        Map<String, Long> viewsMap = viewStatsDTOS.stream()
-                .collect(Collectors.toMap(ViewStatsDTO::getUri, ViewStatsDTO::getHits));
-
-        Map<Long, Event> eventMap = compEvents.stream()
-                .collect(Collectors.toMap(Event::getId, event -> event));
-
-        return eventsIdWithViews.stream().map(ev -> {
-            Event finalEvent = eventMap.get(ev.getEventId());
-
-            int rating = getRating(finalEvent);
-            long views = viewsMap.getOrDefault("/events/" + ev.getEventId(), 0L);
-            finalEvent.setConfirmedRequests(Math.toIntExact(ev.getCount()));
-            return eventMapper.toEventShortDto(finalEvent, rating, views);
-        }).collect(Collectors.toList());
+        return eventEnrichmentService.toShortDtos(new ArrayList<>(saved.getEvents()));
     }
 
     @Override
@@ -142,7 +99,14 @@ public class CompilationServiceImpl implements CompilationService {
 
         List<Compilation> compilations = StreamSupport.stream(compilationsIterable.spliterator(), false).toList();
 
-        return compilations.stream().map(comp -> compilationMapper.toCompilationDto(comp, getEventShortDtos(comp))).toList();
+        EventCounters counters = eventEnrichmentService.load(compilations.stream()
+                .flatMap(comp -> comp.getEvents().stream())
+                .collect(Collectors.toSet()));
+
+        return compilations.stream()
+                .map(comp -> compilationMapper.toCompilationDto(comp,
+                        eventEnrichmentService.toShortDtos(new ArrayList<>(comp.getEvents()), counters)))
+                .toList();
     }
 
     @Override
@@ -151,10 +115,4 @@ public class CompilationServiceImpl implements CompilationService {
 
         return compilationMapper.toCompilationDto(compilation, getEventShortDtos(compilation));
     }
-
-    private int getRating(Event event) {
-        int likes = Optional.of(ratingRepository.countLikesByEvent(event)).orElse(0);
-        int dislikes = Optional.of(ratingRepository.countDislikesByEvent(event)).orElse(0);
-        return likes - dislikes;
-    }
 }
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.event.dto.AdminEventRequestParams;
@@ -27,15 +28,16 @@ public class AdminEventsController {
     private final EventService eventService;
 
     @GetMapping("/events")
-    public List<EventFullDto> getEvents(@RequestParam(value = "users", required = false) Set<Long> users,
-                                        @RequestParam(value = "states", required = false) Set<EventState> states,
-                                        @RequestParam(value = "categories", required = false) Set<Long> categories,
-                                        @RequestParam(value = "rangeStart", required = false)
-                                        @DateTimeFormat(pattern = ("yyyy-MM-dd HH:mm:ss")) LocalDateTime rangeStart,
-                                        @RequestParam(value = "rangeEnd", required = false)
-                                        @DateTimeFormat(pattern = ("yyyy-MM-dd HH:mm:ss")) LocalDateTime rangeEnd,
-                                        @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
-                                        @RequestParam(value = "size", defaultValue = "10") @Positive int size) {
+    public ResponseEntity<List<EventFullDto>> getEvents(@RequestParam(value = "users", required = false) Set<Long> users,
+                                                        @RequestParam(value = "states", required = false) Set<EventState> states,
+                                                        @RequestParam(value = "categories", required = false) Set<Long> categories,
+                                                        @RequestParam(value = "rangeStart", required = false)
+                                                        @DateTimeFormat(pattern = ("yyyy-MM-dd HH:mm:ss")) LocalDateTime rangeStart,
+                                                        @RequestParam(value = "rangeEnd", required = false)
+                                                        @DateTimeFormat(pattern = ("yyyy-MM-dd HH:mm:ss")) LocalDateTime rangeEnd,
+                                                        @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                        @RequestParam(value = "size", defaultValue = "10") @Positive int size,
+                                                        @RequestParam(value = "cursor", required = false) String cursor) {
 
         Map<String, LocalDateTime> ranges = validDate(rangeStart, rangeEnd);
         AdminEventRequestParams params = AdminEventRequestParams.builder()
@@ -46,8 +48,9 @@ public class AdminEventsController {
                 .rangeEnd(ranges.get("rangeEnd"))
                 .from(from)
                 .size(size)
+                .cursor(cursor)
                 .build();
-        return eventService.getAll(params);
+        return eventService.getAll(params).toResponse();
     }
 
     @PatchMapping("/events/{eventId}")
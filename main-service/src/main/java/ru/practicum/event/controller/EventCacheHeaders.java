@@ -0,0 +1,73 @@
+package ru.practicum.event.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.dto.EventSlice;
+import ru.practicum.event.model.EventVersion;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class EventCacheHeaders {
+
+    private final CacheControl listCacheControl;
+    private final CacheControl eventCacheControl;
+
+    public EventCacheHeaders(@Value("${events.http.list-max-age-seconds:0}") long listMaxAgeSeconds,
+                             @Value("${events.http.event-max-age-seconds:0}") long eventMaxAgeSeconds) {
+        this.listCacheControl = cacheControl(listMaxAgeSeconds);
+        this.eventCacheControl = cacheControl(eventMaxAgeSeconds);
+    }
+
+    public boolean listNotModified(ServletWebRequest request, EventSlice<EventShortDto> slice) {
+        StringBuilder key = new StringBuilder();
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> key.append(name).append('=')
+                .append(String.join(",", Arrays.stream(values).sorted().toList())).append('&'));
+        key.append(slice.nextCursor());
+        for (EventShortDto event : slice.content()) {
+            key.append('|').append(event.getId())
+                    .append('-').append(event.getConfirmedRequests())
+                    .append('-').append(event.getRating())
+                    .append('-').append(event.getViews())
+                    .append('-').append(event.hashCode());
+        }
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        return notModified(request, listCacheControl, etag);
+    }
+
+    public boolean eventNotModified(ServletWebRequest request, long eventId, EventVersion version) {
+        String etag = "W/\"%d-%d-%d-%d-%d-%x\"".formatted(eventId, toEpochMilli(version.updatedOn()),
+                version.confirmedRequests(), version.rating(), version.views(), version.categoryName().hashCode());
+        return notModified(request, eventCacheControl, etag);
+    }
+
+    private boolean notModified(ServletWebRequest request, CacheControl cacheControl, String etag) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+
+    private static CacheControl cacheControl(long maxAgeSeconds) {
+        if (maxAgeSeconds <= 0) {
+            return CacheControl.noCache();
+        }
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
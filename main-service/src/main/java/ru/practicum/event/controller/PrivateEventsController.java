@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.event.dto.*;
@@ -20,11 +21,12 @@ public class PrivateEventsController {
     private final EventService eventService;
 
     @GetMapping
-    public List<EventShortDto> getAll(@PathVariable("userId") long userId,
-                                      @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
-                                      @RequestParam(value = "size", defaultValue = "10") @Positive int size) {
+    public ResponseEntity<List<EventShortDto>> getAll(@PathVariable("userId") long userId,
+                                                      @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                      @RequestParam(value = "size", defaultValue = "10") @Positive int size,
+                                                      @RequestParam(value = "cursor", required = false) String cursor) {
 
-        return eventService.getAll(new PrivateEventParams(userId, from, size));
+        return eventService.getAll(new PrivateEventParams(userId, from, size, cursor)).toResponse();
     }
 
     @PostMapping
@@ -1,23 +1,30 @@
 package ru.practicum.event.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ValidationException;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.client.StatClient;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.dto.EventSlice;
 import ru.practicum.event.dto.PublicEventRequestParams;
+import ru.practicum.event.model.EventVersion;
 import ru.practicum.event.model.Sort;
 import ru.practicum.event.service.EventService;
+import ru.practicum.event.service.EventViewsSynchronizer;
 import ru.practicum.exeption.WrongDateException;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 @Validated
@@ -29,21 +36,32 @@ public class PublicEventsController {
 
     private final StatClient statClient;
 
+    private final EventCacheHeaders eventCacheHeaders;
+
+    private final EventViewsSynchronizer eventViewsSynchronizer;
+
     @GetMapping()
-    public List<EventShortDto> getEventsPublic(@RequestParam(value = "text", required = false) String text,
-                                               @RequestParam(value = "categories", required = false) Set<Long> categories,
-                                               @RequestParam(value = "paid", required = false) Boolean paid,
-                                               @RequestParam(value = "rangeStart", required = false)
-                                               @DateTimeFormat(pattern = ("yyyy-MM-dd HH:mm:ss")) LocalDateTime rangeStart,
-                                               @RequestParam(value = "rangeEnd", required = false)
-                                               @DateTimeFormat(pattern = ("yyyy-MM-dd HH:mm:ss")) LocalDateTime rangeEnd,
-                                               @RequestParam(value = "onlyAvailable", defaultValue = "false") Boolean onlyAvailable,
-                                               @RequestParam(value = "sort", required = false) Sort sort,
-                                               @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
-                                               @RequestParam(value = "size", defaultValue = "10") @Positive int size,
-                                               HttpServletRequest request) {
+    public ResponseEntity<List<EventShortDto>> getEventsPublic(@RequestParam(value = "text", required = false) String text,
+                                                               @RequestParam(value = "categories", required = false) Set<Long> categories,
+                                                               @RequestParam(value = "paid", required = false) Boolean paid,
+                                                               @RequestParam(value = "rangeStart", required = false)
+                                                               @DateTimeFormat(pattern = ("yyyy-MM-dd HH:mm:ss")) LocalDateTime rangeStart,
+                                                               @RequestParam(value = "rangeEnd", required = false)
+                                                               @DateTimeFormat(pattern = ("yyyy-MM-dd HH:mm:ss")) LocalDateTime rangeEnd,
+                                                               @RequestParam(value = "onlyAvailable", defaultValue = "false") Boolean onlyAvailable,
+                                                               @RequestParam(value = "sort", required = false) Sort sort,
+                                                               @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                               @RequestParam(value = "size", defaultValue = "10") @Positive int size,
+                                                               @RequestParam(value = "cursor", required = false) String cursor,
+                                                               @RequestParam(value = "lat", required = false) Double lat,
+                                                               @RequestParam(value = "lon", required = false) Double lon,
+                                                               @RequestParam(value = "radius", required = false) Double radius,
+                                                               @RequestParam(value = "bbox", required = false) List<Double> bbox,
+                                                               HttpServletRequest request,
+                                                               ServletWebRequest webRequest) {
 
         Map<String, LocalDateTime> ranges = validDate(rangeStart, rangeEnd);
+        validGeo(lat, lon, radius, bbox);
         PublicEventRequestParams params = PublicEventRequestParams.builder()
                 .text(text)
                 .categories(categories)
@@ -54,17 +72,31 @@ public class PublicEventsController {
                 .sort(sort)
                 .from(from)
                 .size(size)
+                .cursor(cursor)
+                .lat(lat)
+                .lon(lon)
+                .radius(radius)
+                .bbox(bbox)
                 .build();
-        List<EventShortDto> all = eventService.getAll(params);
+        EventSlice<EventShortDto> all = eventService.getAll(params);
         sendStats(request);
-        return all;
+        if (eventCacheHeaders.listNotModified(webRequest, all)) {
+            return null;
+        }
+        return all.toResponse();
     }
 
     @GetMapping("/{eventId}")
-    public EventFullDto getEvent(@PathVariable("eventId") long eventId, HttpServletRequest request) {
+    public ResponseEntity<EventFullDto> getEvent(@PathVariable("eventId") long eventId, HttpServletRequest request,
+                                                 ServletWebRequest webRequest) {
+        Optional<EventVersion> version = eventService.getVersion(eventId);
+        if (version.isPresent() && eventCacheHeaders.eventNotModified(webRequest, eventId, version.get())) {
+            sendEventStats(eventId, request);
+            return null;
+        }
         EventFullDto event = eventService.getById(eventId);
-        sendStats(request);
-        return event;
+        sendEventStats(eventId, request);
+        return ResponseEntity.ok(event);
     }
 
     private Map<String, LocalDateTime> validDate(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
@@ -77,7 +109,43 @@ public class PublicEventsController {
         return Map.of("rangeStart", effectiveRangeStart, "rangeEnd", effectiveRangeEnd);
     }
 
+    private void validGeo(Double lat, Double lon, Double radius, List<Double> bbox) {
+        if (lat != null || lon != null || radius != null) {
+            if (lat == null || lon == null || radius == null) {
+                throw new ValidationException("Для поиска по радиусу нужны параметры lat, lon и radius");
+            }
+            if (bbox != null) {
+                throw new ValidationException("Нельзя одновременно искать по радиусу и по bbox");
+            }
+            validCoordinates(lat, lon);
+            if (radius <= 0) {
+                throw new ValidationException("Радиус должен быть положительным");
+            }
+        }
+        if (bbox != null) {
+            if (bbox.size() != 4 || bbox.contains(null)) {
+                throw new ValidationException("bbox должен содержать minLon,minLat,maxLon,maxLat");
+            }
+            validCoordinates(bbox.get(1), bbox.get(0));
+            validCoordinates(bbox.get(3), bbox.get(2));
+            if (bbox.get(1) > bbox.get(3)) {
+                throw new ValidationException("Минимальная широта bbox должна быть не больше максимальной");
+            }
+        }
+    }
+
+    private void validCoordinates(double lat, double lon) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new ValidationException("Координаты вне допустимого диапазона: " + lat + ", " + lon);
+        }
+    }
+
     private void sendStats(HttpServletRequest request) {
         statClient.saveStats(request);
     }
+
+    private void sendEventStats(long eventId, HttpServletRequest request) {
+        sendStats(request);
+        eventViewsSynchronizer.markViewed(eventId);
+    }
 }
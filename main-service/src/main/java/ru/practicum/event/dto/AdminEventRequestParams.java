@@ -21,4 +21,5 @@ public class AdminEventRequestParams {
     private LocalDateTime rangeEnd;
     private int from;
     private int size;
+    private String cursor;
 }
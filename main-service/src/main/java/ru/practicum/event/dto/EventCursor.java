@@ -0,0 +1,35 @@
+package ru.practicum.event.dto;
+
+import jakarta.validation.ValidationException;
+import ru.practicum.event.model.EventOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record EventCursor(EventOrder order, String key, long id) {
+
+    public static final String HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String value = order.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String cursor, EventOrder expectedOrder) {
+        EventCursor decoded;
+        String[] parts;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = value.split("\\|", -1);
+            decoded = new EventCursor(EventOrder.valueOf(parts[0]), parts[1], Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor, e);
+        }
+        if (parts.length != 3 || decoded.order() != expectedOrder) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+        return decoded;
+    }
+}
@@ -35,6 +35,7 @@ public class EventFullDto {
     private int participantLimit;
     private LocalDateTime publishedOn;
     private boolean requestModeration;
+    private boolean highDemand;
     private EventState state;
     private String title;
     private int rating;
@@ -0,0 +1,16 @@
+package ru.practicum.event.dto;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+public record EventSlice<T>(List<T> content, String nextCursor) {
+
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(EventCursor.HEADER, nextCursor);
+        }
+        return response.body(content);
+    }
+}
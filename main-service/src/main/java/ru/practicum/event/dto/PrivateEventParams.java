@@ -9,4 +9,5 @@ public class PrivateEventParams {
     private long userId;
     private int from;
     private int size;
+    private String cursor;
 }
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import ru.practicum.event.model.Sort;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 @Data
@@ -23,4 +24,9 @@ public class PublicEventRequestParams {
     private Sort sort;
     private int from;
     private int size;
+    private String cursor;
+    private Double lat;
+    private Double lon;
+    private Double radius;
+    private List<Double> bbox;
 }
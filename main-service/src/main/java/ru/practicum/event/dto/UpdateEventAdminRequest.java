@@ -36,6 +36,8 @@ public class UpdateEventAdminRequest {
 
     private Boolean requestModeration;
 
+    private Boolean highDemand;
+
     @Size(min = 3, max = 120)
     private String title;
 
@@ -9,6 +9,7 @@ import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.dto.NewEventDto;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
 import ru.practicum.event.model.EventState;
 import ru.practicum.location.dto.LocationDto;
 import ru.practicum.location.model.Location;
@@ -26,6 +27,12 @@ public interface EventMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "publishedOn", ignore = true)
     @Mapping(target = "confirmedRequests", ignore = true)
+    @Mapping(target = "views", ignore = true)
+    @Mapping(target = "likes", ignore = true)
+    @Mapping(target = "dislikes", ignore = true)
+    @Mapping(target = "rating", ignore = true)
+    @Mapping(target = "updatedOn", ignore = true)
+    @Mapping(target = "highDemand", ignore = true)
     @Mapping(target = "category", source = "category")
     @Mapping(target = "location", source = "location")
     @Mapping(target = "initiator", source = "initiator")
@@ -38,6 +45,14 @@ public interface EventMapper {
     @Mapping(target = "views", source = "views")
     EventShortDto toEventShortDto(final Event event, final long rating, final long views);
 
+    @Mapping(target = "category.id", source = "view.categoryId")
+    @Mapping(target = "category.name", source = "view.categoryName")
+    @Mapping(target = "initiator.id", source = "view.initiatorId")
+    @Mapping(target = "initiator.name", source = "view.initiatorName")
+    @Mapping(target = "views", source = "views")
+    EventShortDto toEventShortDto(final EventShortView view, final long views);
+
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "gridCell", ignore = true)
     Location toLocation(LocationDto locationDto);
 }
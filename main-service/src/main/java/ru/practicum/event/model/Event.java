@@ -2,6 +2,8 @@ package ru.practicum.event.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.SourceType;
 import ru.practicum.category.model.Category;
 import ru.practicum.location.model.Location;
 import ru.practicum.user.model.User;
@@ -30,8 +32,7 @@ public class Event {
     @ToString.Exclude
     private Category category;
 
-    @Column(name = "confirmed_requests")
-    @Transient
+    @Column(name = "confirmed_requests", insertable = false, updatable = false)
     @Builder.Default
     private Integer confirmedRequests = 0;
 
@@ -71,4 +72,27 @@ public class Event {
 
     @Column(name = "title", nullable = false)
     private String title;
+
+    @Column(name = "views", insertable = false, updatable = false)
+    @Builder.Default
+    private long views = 0;
+
+    @Column(name = "likes", insertable = false, updatable = false)
+    @Builder.Default
+    private long likes = 0;
+
+    @Column(name = "dislikes", insertable = false, updatable = false)
+    @Builder.Default
+    private long dislikes = 0;
+
+    @Column(name = "rating", insertable = false, updatable = false)
+    @Builder.Default
+    private long rating = 0;
+
+    @Column(name = "high_demand", nullable = false)
+    private boolean highDemand;
+
+    @Column(name = "updated_on", nullable = false)
+    @CurrentTimestamp(source = SourceType.DB)
+    private LocalDateTime updatedOn;
 }
@@ -0,0 +1,9 @@
+package ru.practicum.event.model;
+
+public enum EventOrder {
+    ID,
+    EVENT_DATE,
+    VIEWS,
+    RATING,
+    RELEVANCE
+}
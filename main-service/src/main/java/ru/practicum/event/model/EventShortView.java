@@ -0,0 +1,17 @@
+package ru.practicum.event.model;
+
+import java.time.LocalDateTime;
+
+public record EventShortView(Long id,
+                             String annotation,
+                             String title,
+                             LocalDateTime eventDate,
+                             Boolean paid,
+                             Integer confirmedRequests,
+                             Long views,
+                             Long rating,
+                             Long categoryId,
+                             String categoryName,
+                             Long initiatorId,
+                             String initiatorName) {
+}
@@ -0,0 +1,7 @@
+package ru.practicum.event.model;
+
+import java.time.LocalDateTime;
+
+public record EventVersion(LocalDateTime updatedOn, Integer confirmedRequests, Long rating, Long views,
+                           String categoryName) {
+}
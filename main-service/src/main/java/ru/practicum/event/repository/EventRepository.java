@@ -1,17 +1,63 @@
 package ru.practicum.event.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventState;
+import ru.practicum.event.model.EventVersion;
+import ru.practicum.request.model.RequestStatus;
 import ru.practicum.user.model.User;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event> {
+public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event>,
+        EventRepositoryCustom {
     Optional<Event> findByIdAndInitiator(long eventId, User user);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :eventId AND e.initiator = :initiator")
+    Optional<Event> findForUpdate(@Param("eventId") long eventId, @Param("initiator") User initiator);
+
     List<Event> findByIdIn(List<Long> eventIds);
 
     boolean existsByCategoryId(long categoryId);
+
+    @Query("SELECT e.id FROM Event e WHERE e.state = :state AND e.id > :afterId ORDER BY e.id")
+    List<Long> findIdsByState(@Param("state") EventState state, @Param("afterId") long afterId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.likes = e.likes + :likes, e.dislikes = e.dislikes + :dislikes, " +
+            "e.rating = e.rating + :likes - :dislikes WHERE e.id = :eventId")
+    void addReactions(@Param("eventId") long eventId, @Param("likes") long likes, @Param("dislikes") long dislikes);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :delta " +
+            "WHERE e.id = :eventId")
+    void addConfirmedRequests(@Param("eventId") long eventId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :seats " +
+            "WHERE e.id = :eventId AND (e.participantLimit = 0 OR e.confirmedRequests + :seats <= e.participantLimit)")
+    int reserveSeats(@Param("eventId") long eventId, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + 1 WHERE e.id = :eventId " +
+            "AND (e.participantLimit = 0 OR e.confirmedRequests < e.participantLimit " +
+            "AND NOT EXISTS (SELECT r.id FROM Request r WHERE r.event.id = :eventId AND r.status = :waitlisted))")
+    int reserveSeatUnlessWaitlisted(@Param("eventId") long eventId, @Param("waitlisted") RequestStatus waitlisted);
+
+    @Query("SELECT new ru.practicum.event.model.EventVersion(e.updatedOn, e.confirmedRequests, e.rating, e.views, " +
+            "e.category.name) " +
+            "FROM Event e WHERE e.id = :eventId AND e.state = :state")
+    Optional<EventVersion> findVersion(@Param("eventId") long eventId, @Param("state") EventState state);
+
+    @Query("SELECT e.state FROM Event e WHERE e.id = :eventId")
+    Optional<EventState> findStateById(@Param("eventId") long eventId);
 }
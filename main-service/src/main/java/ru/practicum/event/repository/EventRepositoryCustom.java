@@ -0,0 +1,14 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
+
+import java.util.List;
+
+public interface EventRepositoryCustom {
+    List<Event> findSlice(Predicate predicate, long offset, int limit, OrderSpecifier<?>... orders);
+
+    List<EventShortView> findShortSlice(Predicate predicate, long offset, int limit, OrderSpecifier<?>... orders);
+}
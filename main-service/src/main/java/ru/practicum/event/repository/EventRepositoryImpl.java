@@ -0,0 +1,53 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import ru.practicum.category.model.QCategory;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
+import ru.practicum.event.model.QEvent;
+import ru.practicum.user.model.QUser;
+
+import java.util.List;
+
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    public EventRepositoryImpl(EntityManager entityManager) {
+        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    @Override
+    public List<Event> findSlice(Predicate predicate, long offset, int limit, OrderSpecifier<?>... orders) {
+        return queryFactory.selectFrom(QEvent.event)
+                .where(predicate)
+                .orderBy(orders)
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    @Override
+    public List<EventShortView> findShortSlice(Predicate predicate, long offset, int limit,
+                                               OrderSpecifier<?>... orders) {
+        QEvent event = QEvent.event;
+        QCategory category = QCategory.category;
+        QUser initiator = QUser.user;
+        return queryFactory.select(Projections.constructor(EventShortView.class,
+                        event.id, event.annotation, event.title, event.eventDate, event.paid,
+                        event.confirmedRequests, event.views, event.rating,
+                        category.id, category.name, initiator.id, initiator.name))
+                .from(event)
+                .join(event.category, category)
+                .join(event.initiator, initiator)
+                .where(predicate)
+                .orderBy(orders)
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+}
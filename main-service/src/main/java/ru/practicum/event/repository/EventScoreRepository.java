@@ -0,0 +1,59 @@
+package ru.practicum.event.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class EventScoreRepository {
+
+    private static final String UPDATE_VIEWS_SQL = "UPDATE events SET views = ? WHERE event_id = ? AND views <> ?";
+
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(event_id), 0) FROM events";
+
+    private static final String LOCK_SQL = "SELECT event_id FROM events " +
+            "WHERE event_id > ? AND event_id <= ? ORDER BY event_id FOR UPDATE";
+
+    private static final String CONFIRMED_SQL = "(SELECT COUNT(*) FROM requests r " +
+            "WHERE r.event_id = e.event_id AND r.status = 'CONFIRMED')";
+    private static final String LIKES_SQL = "(SELECT COUNT(*) FROM event_ratings r " +
+            "WHERE r.event_id = e.event_id AND r.is_like > 0)";
+    private static final String DISLIKES_SQL = "(SELECT COUNT(*) FROM event_ratings r " +
+            "WHERE r.event_id = e.event_id AND r.is_like < 0)";
+
+    private static final String RECONCILE_SQL = "UPDATE events e SET " +
+            "confirmed_requests = " + CONFIRMED_SQL + ", " +
+            "likes = " + LIKES_SQL + ", " +
+            "dislikes = " + DISLIKES_SQL + ", " +
+            "rating = " + LIKES_SQL + " - " + DISLIKES_SQL + " " +
+            "WHERE e.event_id > ? AND e.event_id <= ? AND (" +
+            "e.confirmed_requests <> " + CONFIRMED_SQL + " OR " +
+            "e.likes <> " + LIKES_SQL + " OR " +
+            "e.dislikes <> " + DISLIKES_SQL + " OR " +
+            "e.rating <> e.likes - e.dislikes)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void updateViews(Map<Long, Long> views) {
+        List<Object[]> args = new ArrayList<>(views.size());
+        views.forEach((eventId, count) -> args.add(new Object[]{count, eventId, count}));
+        jdbcTemplate.batchUpdate(UPDATE_VIEWS_SQL, args);
+    }
+
+    public long findMaxId() {
+        Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        return maxId != null ? maxId : 0;
+    }
+
+    @Transactional
+    public int reconcileCounters(long afterId, long toId) {
+        jdbcTemplate.queryForList(LOCK_SQL, Long.class, afterId, toId);
+        return jdbcTemplate.update(RECONCILE_SQL, afterId, toId);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.event.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+public class EventSearchFunctionContributor implements FunctionContributor {
+
+    private static final int ARGUMENTS = 4;
+
+    private static final String DOCUMENT = "(setweight(to_tsvector('simple', ?1), 'A') || " +
+            "setweight(to_tsvector('simple', ?2), 'B'))";
+
+    private static final String LIKE_ANNOTATION = "lower(?1) like lower(concat('%', ?4, '%'))";
+    private static final String LIKE_DESCRIPTION = "lower(?2) like lower(concat('%', ?4, '%'))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        BasicType<Boolean> booleanType = types.resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = types.resolve(StandardBasicTypes.DOUBLE);
+
+        if (functionContributions.getDialect() instanceof PostgreSQLDialect) {
+            register(registry, "fts_match", DOCUMENT + " @@ to_tsquery('simple', ?3)", booleanType);
+            register(registry, "fts_rank", "ts_rank(" + DOCUMENT + ", to_tsquery('simple', ?3))", doubleType);
+        } else {
+            register(registry, "fts_match", "(" + LIKE_ANNOTATION + " or " + LIKE_DESCRIPTION + ")", booleanType);
+            register(registry, "fts_rank", "(case when " + LIKE_ANNOTATION + " then 1.0 else 0.5 end)", doubleType);
+        }
+    }
+
+    private void register(SqmFunctionRegistry registry, String name, String pattern, BasicType<?> type) {
+        registry.patternDescriptorBuilder(name, pattern)
+                .setExactArgumentCount(ARGUMENTS)
+                .setInvariantType(type)
+                .register();
+    }
+}
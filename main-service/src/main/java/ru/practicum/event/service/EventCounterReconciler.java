@@ -0,0 +1,34 @@
+package ru.practicum.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.event.repository.EventScoreRepository;
+
+@Slf4j
+@Component
+public class EventCounterReconciler {
+
+    private final EventScoreRepository eventScoreRepository;
+    private final int batchSize;
+
+    public EventCounterReconciler(EventScoreRepository eventScoreRepository,
+                                  @Value("${events.counters.reconcile-batch-size:1000}") int batchSize) {
+        this.eventScoreRepository = eventScoreRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${events.counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${events.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long maxId = eventScoreRepository.findMaxId();
+        int repaired = 0;
+        for (long afterId = 0; afterId < maxId; afterId += batchSize) {
+            repaired += eventScoreRepository.reconcileCounters(afterId, Math.min(afterId + batchSize, maxId));
+        }
+        if (repaired > 0) {
+            log.warn("Исправлены счетчики у {} событий", repaired);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.event.service;
+
+import java.util.Map;
+
+public record EventCounters(Map<Long, Long> ratings, Map<Long, Long> views) {
+
+    public long rating(long eventId) {
+        return ratings.getOrDefault(eventId, 0L);
+    }
+
+    public long views(long eventId) {
+        return views.getOrDefault(eventId, 0L);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.event.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.practicum.event.dto.EventFullDto;
+import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.mapper.EventMapper;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+public class EventEnrichmentService {
+
+    private final ViewCountCache viewCountCache;
+    private final EventMapper eventMapper;
+
+    public EventCounters load(Collection<Event> events) {
+        CompletableFuture<Map<Long, Long>> views = viewCountCache.getViewsAsync(events.stream().map(Event::getId).toList());
+        Map<Long, Long> ratings = new HashMap<>();
+        for (Event event : events) {
+            ratings.put(event.getId(), event.getLikes() - event.getDislikes());
+        }
+        return new EventCounters(ratings, views.join());
+    }
+
+    public List<EventShortDto> toShortDtos(List<Event> events) {
+        CompletableFuture<Map<Long, Long>> views = viewCountCache.getViewsAsync(events.stream().map(Event::getId).toList());
+        List<EventShortDto> dtos = events.stream()
+                .map(event -> eventMapper.toEventShortDto(event, event.getLikes() - event.getDislikes(), 0L))
+                .toList();
+        Map<Long, Long> statViews = views.join();
+        dtos.forEach(dto -> dto.setViews(statViews.getOrDefault(dto.getId(), 0L)));
+        return dtos;
+    }
+
+    public List<EventShortDto> toShortDtos(List<Event> events, EventCounters counters) {
+        return events.stream()
+                .map(event -> eventMapper.toEventShortDto(event, counters.rating(event.getId()),
+                        counters.views(event.getId())))
+                .toList();
+    }
+
+    public List<EventShortDto> toShortDtosFromViews(List<EventShortView> views) {
+        CompletableFuture<Map<Long, Long>> statViews = viewCountCache.getViewsAsync(views.stream()
+                .map(EventShortView::id).toList());
+        List<EventShortDto> dtos = views.stream()
+                .map(view -> eventMapper.toEventShortDto(view, 0L))
+                .toList();
+        Map<Long, Long> loaded = statViews.join();
+        dtos.forEach(dto -> dto.setViews(loaded.getOrDefault(dto.getId(), 0L)));
+        return dtos;
+    }
+
+    public List<EventFullDto> toFullDtos(List<Event> events) {
+        CompletableFuture<Map<Long, Long>> views = viewCountCache.getViewsAsync(events.stream().map(Event::getId).toList());
+        List<EventFullDto> dtos = events.stream()
+                .map(event -> eventMapper.toEventFullDto(event, event.getLikes() - event.getDislikes(), 0L))
+                .toList();
+        Map<Long, Long> statViews = views.join();
+        dtos.forEach(dto -> dto.setViews(statViews.getOrDefault(dto.getId(), 0L)));
+        return dtos;
+    }
+
+    public EventFullDto toFullDto(Event event) {
+        return toFullDtos(List.of(event)).getFirst();
+    }
+
+    public EventFullDto toFullDto(long eventId, Supplier<Event> loader) {
+        CompletableFuture<Map<Long, Long>> views = viewCountCache.getViewsAsync(List.of(eventId));
+        Event event = loader.get();
+        EventFullDto dto = eventMapper.toEventFullDto(event, event.getLikes() - event.getDislikes(), 0L);
+        dto.setViews(views.join().getOrDefault(eventId, 0L));
+        return dto;
+    }
+}
@@ -2,22 +2,26 @@ package ru.practicum.event.service;
 
 import ru.practicum.event.dto.*;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventVersion;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface EventService {
-    List<EventShortDto> getAll(PrivateEventParams params);
+    EventSlice<EventShortDto> getAll(PrivateEventParams params);
 
     EventFullDto create(long userId, NewEventDto newEventDto);
 
     EventFullDto getById(long eventId);
 
+    Optional<EventVersion> getVersion(long eventId);
+
     EventFullDto update(long userId, long eventId, UpdateEventUserRequest updateEventUserRequest);
 
-    List<EventShortDto> getAll(PublicEventRequestParams params);
+    EventSlice<EventShortDto> getAll(PublicEventRequestParams params);
 
-    List<EventFullDto> getAll(AdminEventRequestParams params);
+    EventSlice<EventFullDto> getAll(AdminEventRequestParams params);
 
     EventFullDto getById(long userId, long eventId);
 
@@ -1,28 +1,33 @@
 package ru.practicum.event.service;
 
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.category.model.Category;
 import ru.practicum.category.repository.CategoryRepository;
-import ru.practicum.client.StatClient;
 import ru.practicum.event.dto.*;
 import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventOrder;
+import ru.practicum.event.model.EventShortView;
 import ru.practicum.event.model.EventState;
+import ru.practicum.event.model.EventVersion;
 import ru.practicum.event.model.QEvent;
+import ru.practicum.event.model.Sort;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.exeption.ConflictException;
 import ru.practicum.exeption.NotFoundException;
+import ru.practicum.location.model.GeoGrid;
 import ru.practicum.location.model.Location;
+import ru.practicum.location.model.QLocation;
 import ru.practicum.location.repository.LocationRepository;
-import ru.practicum.rating.repository.RatingRepository;
-import ru.practicum.request.dto.EventCountByRequest;
-import ru.practicum.request.repository.RequestRepository;
-import ru.practicum.stat.StatsParams;
-import ru.practicum.stat.ViewStatsDTO;
+import ru.practicum.request.service.AdmissionQueue;
 import ru.practicum.user.model.User;
 import ru.practicum.user.repository.UserRepository;
 
@@ -30,38 +35,48 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static ru.practicum.event.model.Sort.*;
-
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class EventServiceImpl implements EventService {
 
+    private static final String DISTANCE_TEMPLATE = "{4} * acos(least(1.0, " +
+            "cos(radians({0})) * cos(radians({2})) * cos(radians({1}) - radians({3})) + " +
+            "sin(radians({0})) * sin(radians({2}))))";
+
     private final EventRepository eventRepository;
     private final EventMapper eventMapper;
-    private final RequestRepository requestRepository;
-    private final StatClient statClient;
+    private final EventEnrichmentService eventEnrichmentService;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final LocationRepository locationRepository;
-    private final RatingRepository ratingRepository;
+    private final AdmissionQueue admissionQueue;
 
     @Override
-    public List<EventShortDto> getAll(PublicEventRequestParams params) {
+    public EventSlice<EventShortDto> getAll(PublicEventRequestParams params) {
         QEvent event = QEvent.event;
         List<BooleanExpression> conditions = new ArrayList<>();
 
-        int from = params.getFrom();
-        int size = params.getSize();
-
         conditions.add(event.state.eq(EventState.PUBLISHED));
-
-        PageRequest pageRequest = PageRequest.of(from > 0 ? from / size : 0, size);
-
         conditions.add(event.eventDate.after(params.getRangeStart()));
         conditions.add(event.eventDate.before(params.getRangeEnd()));
-        if (params.getText() != null) {
-            conditions.add(event.description.containsIgnoreCase(params.getText()).or(event.annotation.containsIgnoreCase(params.getText())));
+
+        EventOrder order = toOrder(params.getSort());
+        OrderSpecifier<?>[] orderBy = orderBy(order);
+        String searchQuery = params.getText() != null ? toSearchQuery(params.getText()) : "";
+        if (params.getText() != null && searchQuery.isEmpty()) {
+            conditions.add(event.description.containsIgnoreCase(params.getText())
+                    .or(event.annotation.containsIgnoreCase(params.getText())));
+        } else if (!searchQuery.isEmpty()) {
+            conditions.add(Expressions.booleanTemplate("fts_match({0}, {1}, {2}, {3})",
+                    event.annotation, event.description, searchQuery, params.getText()));
+            if (params.getSort() == null) {
+                NumberExpression<Double> rank = Expressions.numberTemplate(Double.class,
+                        "fts_rank({0}, {1}, {2}, {3})",
+                        event.annotation, event.description, searchQuery, params.getText());
+                order = EventOrder.RELEVANCE;
+                orderBy = new OrderSpecifier<?>[]{rank.desc(), event.id.asc()};
+            }
         }
         if (params.getCategories() != null && !params.getCategories().isEmpty()) {
             conditions.add(event.category.id.in(params.getCategories()));
@@ -69,113 +84,154 @@ public class EventServiceImpl implements EventService {
         if (params.getPaid() != null) {
             conditions.add(event.paid.eq(params.getPaid()));
         }
+        BooleanExpression geoCondition = geoCondition(params);
+        if (geoCondition != null) {
+            conditions.add(geoCondition);
+        }
+        if (Boolean.TRUE.equals(params.getOnlyAvailable())) {
+            conditions.add(event.participantLimit.eq(0).or(event.confirmedRequests.lt(event.participantLimit)));
+        }
         BooleanExpression finalConditional = conditions.stream().reduce(BooleanExpression::and).get();
 
-        List<Event> events = eventRepository.findAll(finalConditional, pageRequest).getContent();
-        if (events.isEmpty()) {
-            return Collections.emptyList();
-        }
-        List<EventCountByRequest> eventsIdWithConfirmedRequest;
-        if (params.getOnlyAvailable()) {
-            eventsIdWithConfirmedRequest = requestRepository.findConfirmedRequestWithLimitCheck(events);
-        } else {
-            eventsIdWithConfirmedRequest = requestRepository.findConfirmedRequestWithoutLimitCheck(events);
-        }
-
-        Map<Long, Long> eventIdToViewsMap = getViewStatsDTOS(eventsIdWithConfirmedRequest)
-                .stream()
-                .collect(Collectors.toMap(stat -> Long.parseLong(stat.getUri().split("/")[2]), ViewStatsDTO::getHits));
-
-        List<EventRatingDto> eventRatingDtos = getEventRatingDtos(events);
-
-        List<EventShortDto> eventShortDtos = new ArrayList<>(eventsIdWithConfirmedRequest.stream()
-                .map(ev -> {
-                    Event finalEvent = getFinalEvent(ev, events);
-                    long views = eventIdToViewsMap.getOrDefault(finalEvent.getId(), 0L);
-                    long rating = getRating(ev, eventRatingDtos);
-                    return eventMapper.toEventShortDto(finalEvent, rating, views);
-                })
-                .toList());
-
-        if (params.getSort() != null) {
-            if (params.getSort() == EVENT_DATE) {
-                eventShortDtos.sort(Comparator.comparing(EventShortDto::getEventDate).reversed());
-            } else if (params.getSort() == VIEWS) {
-                eventShortDtos.sort(Comparator.comparing(EventShortDto::getViews).reversed());
-            } else if (params.getSort() == TOP_RATING) {
-                eventShortDtos.sort(Comparator.comparing(EventShortDto::getRating).reversed());
+        EventSlice<EventShortView> slice = findSlice(eventRepository::findShortSlice, EventServiceImpl::cursorAfter,
+                finalConditional, order, orderBy, params.getCursor(), params.getFrom(), params.getSize());
+        return new EventSlice<>(eventEnrichmentService.toShortDtosFromViews(slice.content()), slice.nextCursor());
+    }
+
+    private <T> EventSlice<T> findSlice(SliceQuery<T> query, CursorFactory<T> cursorFactory,
+                                        Predicate predicate, EventOrder order, OrderSpecifier<?>[] orderBy,
+                                        String cursor, int from, int size) {
+        QEvent event = QEvent.event;
+        BooleanBuilder where = new BooleanBuilder(predicate);
+        long offset = from;
+        if (cursor != null) {
+            EventCursor after = EventCursor.decode(cursor, order);
+            offset = 0;
+            switch (order) {
+                case ID -> where.and(event.id.gt(after.id()));
+                case EVENT_DATE -> {
+                    LocalDateTime eventDate = LocalDateTime.parse(after.key());
+                    where.and(event.eventDate.lt(eventDate)
+                            .or(event.eventDate.eq(eventDate).and(event.id.lt(after.id()))));
+                }
+                case VIEWS -> {
+                    long views = Long.parseLong(after.key());
+                    where.and(event.views.lt(views).or(event.views.eq(views).and(event.id.lt(after.id()))));
+                }
+                case RATING -> {
+                    long rating = Long.parseLong(after.key());
+                    where.and(event.rating.lt(rating).or(event.rating.eq(rating).and(event.id.lt(after.id()))));
+                }
+                case RELEVANCE -> offset = Long.parseLong(after.key());
             }
         }
 
-        return eventShortDtos;
+        List<T> rows = query.fetch(where, offset, size + 1, orderBy);
+        if (rows.size() <= size) {
+            return new EventSlice<>(rows, null);
+        }
+        EventCursor next = cursorFactory.after(rows.get(size - 1), order, offset + size);
+        return new EventSlice<>(rows.subList(0, size), next.encode());
     }
 
-    private static Event getFinalEvent(EventCountByRequest ev, List<Event> events) {
-        return events.stream()
-                .filter(e -> e.getId().equals(ev.getEventId()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("Event not found: " + ev.getEventId()));
+    private static EventCursor cursorAfter(Event last, EventOrder order, long nextOffset) {
+        return cursorAfter(order, nextOffset, last.getId(), last.getEventDate(), last.getViews(), last.getRating());
     }
 
-    private List<EventRatingDto> getEventRatingDtos(List<Event> events) {
-        return ratingRepository.countEventsRating(events);
+    private static EventCursor cursorAfter(EventShortView last, EventOrder order, long nextOffset) {
+        return cursorAfter(order, nextOffset, last.id(), last.eventDate(), last.views(), last.rating());
     }
 
-    private long getRating(EventCountByRequest event, List<EventRatingDto> eventRatingDtos) {
-        return eventRatingDtos.stream()
-                .filter(ev -> ev.getEventId().equals(event.getEventId()))
-                .map(EventRatingDto::getRating)
-                .findFirst()
-                .orElse(0L);
+    private static EventCursor cursorAfter(EventOrder order, long nextOffset, long id, LocalDateTime eventDate,
+                                           long views, long rating) {
+        String key = switch (order) {
+            case ID -> "";
+            case EVENT_DATE -> eventDate.toString();
+            case VIEWS -> String.valueOf(views);
+            case RATING -> String.valueOf(rating);
+            case RELEVANCE -> String.valueOf(nextOffset);
+        };
+        return new EventCursor(order, key, id);
     }
 
-    @Override
-    public EventFullDto getById(long eventId) {
-        Event event = getEvent(eventId);
-        if (!event.getState().equals(EventState.PUBLISHED)) {
-            throw new NotFoundException("Event is not published");
-        }
+    private static OrderSpecifier<?>[] orderBy(EventOrder order) {
+        QEvent event = QEvent.event;
+        return switch (order) {
+            case EVENT_DATE -> new OrderSpecifier<?>[]{event.eventDate.desc(), event.id.desc()};
+            case VIEWS -> new OrderSpecifier<?>[]{event.views.desc(), event.id.desc()};
+            case RATING -> new OrderSpecifier<?>[]{event.rating.desc(), event.id.desc()};
+            default -> new OrderSpecifier<?>[]{event.id.asc()};
+        };
+    }
 
-        Integer requests = requestRepository.countConfirmedRequest(eventId);
+    private static BooleanExpression geoCondition(PublicEventRequestParams params) {
+        QLocation location = QEvent.event.location;
+        if (params.getRadius() != null) {
+            GeoGrid.Box box = GeoGrid.around(params.getLat(), params.getLon(), params.getRadius());
+            NumberExpression<Double> distance = Expressions.numberTemplate(Double.class, DISTANCE_TEMPLATE,
+                    location.lat, location.lon, params.getLat(), params.getLon(), GeoGrid.EARTH_RADIUS_KM);
+            return inCells(location, box).and(distance.loe(params.getRadius()));
+        }
+        if (params.getBbox() != null) {
+            List<Double> bbox = params.getBbox();
+            GeoGrid.Box box = new GeoGrid.Box(bbox.get(1), bbox.get(0), bbox.get(3), bbox.get(2));
+            BooleanExpression lonCondition = box.lonIntervals().stream()
+                    .map(interval -> location.lon.between((float) interval[0], (float) interval[1]))
+                    .reduce(BooleanExpression::or)
+                    .orElseThrow();
+            return inCells(location, box)
+                    .and(location.lat.between((float) box.minLat(), (float) box.maxLat()))
+                    .and(lonCondition);
+        }
+        return null;
+    }
 
-        long rating = getEventRating(event);
+    private static BooleanExpression inCells(QLocation location, GeoGrid.Box box) {
+        return GeoGrid.cellRanges(box).stream()
+                .map(range -> location.gridCell.between(range.from(), range.to()))
+                .reduce(BooleanExpression::or)
+                .orElseThrow();
+    }
 
-        long eventViews = getEventViews(event);
+    private static EventOrder toOrder(Sort sort) {
+        if (sort == null) {
+            return EventOrder.ID;
+        }
+        return switch (sort) {
+            case EVENT_DATE -> EventOrder.EVENT_DATE;
+            case VIEWS -> EventOrder.VIEWS;
+            case TOP_RATING -> EventOrder.RATING;
+        };
+    }
 
-        event.setConfirmedRequests(requests);
-        return eventMapper.toEventFullDto(event, rating, eventViews);
+    private static String toSearchQuery(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
     }
 
-    private long getEventViews(Event event) {
-        LocalDateTime start = event.getPublishedOn() != null ? event.getPublishedOn() : LocalDateTime.now().minusYears(200);
-        List<String> listEndpoint = List.of("/events/" + event.getId());
-        StatsParams statsParams = StatsParams.builder()
-                .uris(listEndpoint)
-                .unique(true)
-                .start(start)
-                .end(LocalDateTime.now())
-                .build();
-        List<ViewStatsDTO> stats = statClient.getStats(statsParams);
-        if (stats.isEmpty()) {
-            return 0;
-        }
-        return stats.getFirst().getHits();
+    @Override
+    public EventFullDto getById(long eventId) {
+        EventState state = eventRepository.findStateById(eventId)
+                .orElseThrow(() -> new NotFoundException("Событие с id = " + eventId + " не найдено"));
+        if (!state.equals(EventState.PUBLISHED)) {
+            throw new NotFoundException("Event is not published");
+        }
+
+        return eventEnrichmentService.toFullDto(eventId, () -> getEvent(eventId));
     }
 
-    private long getEventRating(Event event) {
-        return ratingRepository.countLikesByEvent(event) - ratingRepository.countDislikesByEvent(event);
+    @Override
+    public Optional<EventVersion> getVersion(long eventId) {
+        return eventRepository.findVersion(eventId, EventState.PUBLISHED);
     }
 
     @Override
-    public List<EventFullDto> getAll(AdminEventRequestParams params) {
+    public EventSlice<EventFullDto> getAll(AdminEventRequestParams params) {
         QEvent event = QEvent.event;
         List<BooleanExpression> conditions = new ArrayList<>();
 
-        int from = params.getFrom();
-        int size = params.getSize();
-
-        PageRequest pageRequest = PageRequest.of(from > 0 ? from / size : 0, size);
-
         conditions.add(event.eventDate.after(params.getRangeStart()));
         conditions.add(event.eventDate.before(params.getRangeEnd()));
         if (params.getUsers() != null && !params.getUsers().isEmpty()) {
@@ -189,67 +245,19 @@ public class EventServiceImpl implements EventService {
         }
         BooleanExpression finalConditional = conditions.stream().reduce(BooleanExpression::and).get();
 
-        List<Event> events = eventRepository.findAll(finalConditional, pageRequest).getContent();
+        EventSlice<Event> slice = findSlice(eventRepository::findSlice, EventServiceImpl::cursorAfter,
+                finalConditional, EventOrder.ID, orderBy(EventOrder.ID),
+                params.getCursor(), params.getFrom(), params.getSize());
+        List<Event> events = slice.content();
         if (events.isEmpty()) {
-            return Collections.emptyList();
+            return new EventSlice<>(Collections.emptyList(), null);
         }
 
-        List<EventCountByRequest> eventsIdWithConfirmedRequest
-                = requestRepository.findConfirmedRequestWithoutLimitCheck(events);
-
-        List<EventRatingDto> eventRatingDtos = getEventRatingDtos(events);
-
-        List<ViewStatsDTO> viewStatsDTOS = getViewStatsDTOS(eventsIdWithConfirmedRequest);
-
-        Map<Long, Long> eventRequestsMap = eventsIdWithConfirmedRequest.stream()
-                .collect(Collectors.toMap(EventCountByRequest::getEventId, EventCountByRequest::getCount));
-
-        Map<Long, Long> eventRatingMap = eventRatingDtos.stream()
-                .collect(Collectors.toMap(EventRatingDto::getEventId, EventRatingDto::getRating));
-
-        Map<Long, Long> eventViewsMap = viewStatsDTOS.stream()
-                .collect(Collectors.toMap(
-                        stat -> Long.parseLong(stat.getUri().split("/events/")[1]),
-                        ViewStatsDTO::getHits
-                ));
-
-        return events.stream()
-                .map(eventItem -> {
-                    long requests = eventRequestsMap.getOrDefault(eventItem.getId(), 0L);
-                    long views = eventViewsMap.getOrDefault(eventItem.getId(), 0L);
-                    long rating = eventRatingMap.getOrDefault(eventItem.getId(), 0L);
-
-                    eventItem.setConfirmedRequests(Math.toIntExact(requests));
-
-                    return eventMapper.toEventFullDto(eventItem, rating, views);
-                })
-                .collect(Collectors.toList());
-    }
-
-    private List<ViewStatsDTO> getViewStatsDTOS(List<EventCountByRequest> eventsIdWithConfirmedRequest) {
-        LocalDateTime start = eventsIdWithConfirmedRequest.stream()
-                .map(ev -> getEvent(ev.getEventId()))
-                .map(Event::getPublishedOn)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo)
-                .orElse(LocalDateTime.now().minusYears(100));
-
-        List<String> uris = eventsIdWithConfirmedRequest.stream()
-                .map(ev -> "/events/" + ev.getEventId())
-                .collect(Collectors.toList());
-
-        StatsParams statsParams = StatsParams.builder()
-                .uris(uris)
-                .unique(true)
-                .start(start)
-                .end(LocalDateTime.now())
-                .build();
-
-        return statClient.getStats(statsParams);
+        return new EventSlice<>(eventEnrichmentService.toFullDtos(events), slice.nextCursor());
     }
 
     @Override
-    public List<EventShortDto> getAll(PrivateEventParams params) {
+    public EventSlice<EventShortDto> getAll(PrivateEventParams params) {
         QEvent event = QEvent.event;
         List<BooleanExpression> conditions = new ArrayList<>();
         conditions.add(event.initiator.id.eq(params.getUserId()));
@@ -257,30 +265,10 @@ public class EventServiceImpl implements EventService {
                 .reduce(BooleanExpression::and)
                 .orElse(null);
 
-        PageRequest pageRequest = PageRequest.of(params.getFrom() / params.getSize(), params.getSize());
-
-        List<Event> events = eventRepository.findAll(finalCondition, pageRequest).getContent();
-
-        List<EventCountByRequest> eventsIdWithConfirmedRequest
-                = requestRepository.findConfirmedRequestWithoutLimitCheck(events);
-
-        List<EventRatingDto> eventRatingDtos = getEventRatingDtos(events);
-
-        Map<Long, Long> eventIdToViewsMap = getViewStatsDTOS(eventsIdWithConfirmedRequest)
-                .stream()
-                .collect(Collectors.toMap(stat -> Long.parseLong(stat.getUri().split("/")[2]), ViewStatsDTO::getHits));
-
-        Map<Long, Long> eventRatingMap = eventRatingDtos.stream()
-                .collect(Collectors.toMap(EventRatingDto::getEventId, EventRatingDto::getRating));
-
-        return eventsIdWithConfirmedRequest.stream()
-                .map(ev -> {
-                    Event finalEvent = getFinalEvent(ev, events);
-                    long views = eventIdToViewsMap.getOrDefault(finalEvent.getId(), 0L);
-                    long rating = eventRatingMap.getOrDefault(finalEvent.getId(), 0L);
-                    return eventMapper.toEventShortDto(finalEvent, rating, views);
-                })
-                .collect(Collectors.toList());
+        EventSlice<EventShortView> slice = findSlice(eventRepository::findShortSlice, EventServiceImpl::cursorAfter,
+                finalCondition, EventOrder.ID, orderBy(EventOrder.ID), params.getCursor(), params.getFrom(),
+                params.getSize());
+        return new EventSlice<>(eventEnrichmentService.toShortDtosFromViews(slice.content()), slice.nextCursor());
     }
 
     @Override
@@ -310,9 +298,7 @@ public class EventServiceImpl implements EventService {
         if (!event.getInitiator().getId().equals(userId)) {
             throw new ConflictException("The user is not the initiator of the event");
         }
-        long rating = getEventRating(event);
-        long eventViews = getEventViews(event);
-        return eventMapper.toEventFullDto(event, rating, eventViews);
+        return eventEnrichmentService.toFullDto(event);
     }
 
     @Override
@@ -366,9 +352,7 @@ public class EventServiceImpl implements EventService {
             }
         }
         Event saved = eventRepository.save(event);
-        long rating = getEventRating(event);
-        long eventViews = getEventViews(saved);
-        return eventMapper.toEventFullDto(saved, rating, eventViews);
+        return eventEnrichmentService.toFullDto(saved);
     }
 
     @Override
@@ -417,6 +401,9 @@ public class EventServiceImpl implements EventService {
         if (eventDto.getRequestModeration() != null) {
             savedEvent.setRequestModeration(eventDto.getRequestModeration());
         }
+        if (eventDto.getHighDemand() != null) {
+            savedEvent.setHighDemand(eventDto.getHighDemand());
+        }
         if (eventDto.getTitle() != null && !eventDto.getTitle().isBlank()) {
             savedEvent.setTitle(eventDto.getTitle());
         }
@@ -424,14 +411,10 @@ public class EventServiceImpl implements EventService {
             savedEvent.setState(EventState.PUBLISHED);
         }
         savedEvent.setPublishedOn(LocalDateTime.now());
-        Integer requests = requestRepository.countConfirmedRequest(eventId);
-        savedEvent.setConfirmedRequests(requests);
 
-        Event updated = eventRepository.save(savedEvent);
-
-        long rating = getEventRating(savedEvent);
-        long eventViews = getEventViews(savedEvent);
-        return eventMapper.toEventFullDto(updated, rating, eventViews);
+        Event updated = eventRepository.saveAndFlush(savedEvent);
+        admissionQueue.evict(eventId);
+        return eventEnrichmentService.toFullDto(updated);
     }
 
     @Override
@@ -452,4 +435,14 @@ public class EventServiceImpl implements EventService {
         return categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new NotFoundException("Category with id= " + categoryId + " was not found"));
     }
+
+    @FunctionalInterface
+    private interface SliceQuery<T> {
+        List<T> fetch(Predicate predicate, long offset, int limit, OrderSpecifier<?>... orders);
+    }
+
+    @FunctionalInterface
+    private interface CursorFactory<T> {
+        EventCursor after(T last, EventOrder order, long nextOffset);
+    }
 }
@@ -0,0 +1,81 @@
+package ru.practicum.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.event.model.EventState;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.repository.EventScoreRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class EventViewsSynchronizer {
+
+    private final EventRepository eventRepository;
+    private final EventScoreRepository eventScoreRepository;
+    private final ViewCountCache viewCountCache;
+    private final int batchSize;
+    private final long recentWindowMs;
+    private final Map<Long, Long> viewed = new ConcurrentHashMap<>();
+
+    public EventViewsSynchronizer(EventRepository eventRepository,
+                                  EventScoreRepository eventScoreRepository,
+                                  ViewCountCache viewCountCache,
+                                  @Value("${events.scoreboard.batch-size:500}") int batchSize,
+                                  @Value("${events.scoreboard.recent-window-ms:60000}") long recentWindowMs) {
+        this.eventRepository = eventRepository;
+        this.eventScoreRepository = eventScoreRepository;
+        this.viewCountCache = viewCountCache;
+        this.batchSize = batchSize;
+        this.recentWindowMs = recentWindowMs;
+    }
+
+    public void markViewed(long eventId) {
+        viewed.put(eventId, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${events.scoreboard.sync-interval-ms:10000}")
+    public void sync() {
+        if (viewed.isEmpty()) {
+            return;
+        }
+        long expiredBefore = System.currentTimeMillis() - recentWindowMs;
+        List<Map.Entry<Long, Long>> entries = List.copyOf(viewed.entrySet());
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<Long, Long>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            if (syncBatch(batch.stream().map(Map.Entry::getKey).toList())) {
+                batch.stream()
+                        .filter(entry -> entry.getValue() < expiredBefore)
+                        .forEach(entry -> viewed.remove(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.scoreboard.full-sync-interval-ms:3600000}")
+    public void syncAll() {
+        long afterId = 0;
+        List<Long> ids = eventRepository.findIdsByState(EventState.PUBLISHED, afterId, Limit.of(batchSize));
+        while (!ids.isEmpty()) {
+            syncBatch(ids);
+            afterId = ids.getLast();
+            ids = eventRepository.findIdsByState(EventState.PUBLISHED, afterId, Limit.of(batchSize));
+        }
+    }
+
+    private boolean syncBatch(List<Long> ids) {
+        try {
+            eventScoreRepository.updateViews(viewCountCache.fetchViews(ids));
+            return true;
+        } catch (Exception e) {
+            log.warn("Не удалось синхронизировать просмотры событий {}: {}", ids, e.getMessage());
+            return false;
+        }
+    }
+}
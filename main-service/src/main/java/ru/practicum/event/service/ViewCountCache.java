@@ -0,0 +1,108 @@
+package ru.practicum.event.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.client.StatClient;
+import ru.practicum.stat.StatsParams;
+import ru.practicum.stat.ViewStatsDTO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class ViewCountCache {
+
+    private static final LocalDateTime STATS_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final String EVENT_URI = "/events/";
+
+    private final StatClient statClient;
+    private final AsyncLoadingCache<Long, Long> views;
+    private final long deadlineMs;
+
+    public ViewCountCache(StatClient statClient,
+                          MeterRegistry meterRegistry,
+                          @Value("${views.cache.ttl-ms:2000}") long ttlMs,
+                          @Value("${views.cache.stale-ms:60000}") long staleMs,
+                          @Value("${views.cache.max-size:10000}") long maxSize,
+                          @Value("${views.cache.threads:4}") int threads,
+                          @Value("${views.cache.deadline-ms:500}") long deadlineMs) {
+        this.statClient = statClient;
+        this.deadlineMs = deadlineMs;
+        Executor executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "view-count-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofMillis(ttlMs))
+                .expireAfterWrite(Duration.ofMillis(Math.max(ttlMs, staleMs)))
+                .executor(executor)
+                .recordStats()
+                .buildAsync(new ViewsLoader());
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "eventViews");
+    }
+
+    public long getViews(long eventId) {
+        return getViews(List.of(eventId)).getOrDefault(eventId, 0L);
+    }
+
+    public Map<Long, Long> getViews(Collection<Long> eventIds) {
+        return getViewsAsync(eventIds).join();
+    }
+
+    public CompletableFuture<Map<Long, Long>> getViewsAsync(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        return views.getAll(new HashSet<>(eventIds))
+                .exceptionally(e -> {
+                    log.warn("Не удалось получить просмотры событий {}: {}", eventIds, e.getMessage());
+                    return Collections.emptyMap();
+                })
+                .completeOnTimeout(Collections.emptyMap(), deadlineMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Map<Long, Long> fetchViews(Collection<? extends Long> eventIds) {
+        StatsParams statsParams = StatsParams.builder()
+                .uris(eventIds.stream().map(id -> EVENT_URI + id).toList())
+                .unique(true)
+                .start(STATS_START)
+                .end(LocalDateTime.now())
+                .build();
+
+        Map<Long, Long> result = new HashMap<>();
+        eventIds.forEach(id -> result.put(id, 0L));
+        for (ViewStatsDTO stat : statClient.fetchStats(statsParams)) {
+            if (stat.getUri().startsWith(EVENT_URI)) {
+                result.merge(Long.parseLong(stat.getUri().substring(EVENT_URI.length())), stat.getHits(), Long::sum);
+            }
+        }
+        return result;
+    }
+
+    private class ViewsLoader implements AsyncCacheLoader<Long, Long> {
+
+        @Override
+        public CompletableFuture<Long> asyncLoad(Long eventId, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> fetchViews(Set.of(eventId)).get(eventId), executor);
+        }
+
+        @Override
+        public CompletableFuture<Map<Long, Long>> asyncLoadAll(Set<? extends Long> eventIds, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> fetchViews(eventIds), executor);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.exeption;
 
+import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
@@ -30,9 +31,9 @@ public class ErrorHandler {
         );
     }
 
-    @ExceptionHandler({WrongDateException.class})
+    @ExceptionHandler({WrongDateException.class, ValidationException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiError handleWrongDateException(final WrongDateException ex) {
+    public ApiError handleBadRequest(final RuntimeException ex) {
         log.error("Неправильный запрос c кодом 400: {}", ex.getMessage(), ex);
         return new ApiError(
                 HttpStatus.BAD_REQUEST.name(),
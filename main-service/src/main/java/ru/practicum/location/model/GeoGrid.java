@@ -0,0 +1,83 @@
+package ru.practicum.location.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class GeoGrid {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final double CELL_DEGREES = 0.05;
+    private static final int LAT_CELLS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    private static final int MAX_ROWS = 64;
+
+    private GeoGrid() {
+    }
+
+    public static long cellOf(double lat, double lon) {
+        return (long) latIndex(lat) * LON_CELLS + lonIndex(lon);
+    }
+
+    public static Box around(double lat, double lon, double radiusKm) {
+        double angle = radiusKm / EARTH_RADIUS_KM;
+        double minLat = lat - Math.toDegrees(angle);
+        double maxLat = lat + Math.toDegrees(angle);
+        if (minLat <= -90 || maxLat >= 90 || angle >= Math.PI / 2) {
+            return new Box(Math.max(minLat, -90), -180, Math.min(maxLat, 90), 180);
+        }
+        double deltaLon = Math.toDegrees(Math.asin(Math.min(1, Math.sin(angle) / Math.cos(Math.toRadians(lat)))));
+        return new Box(minLat, lon - deltaLon, maxLat, lon + deltaLon);
+    }
+
+    public static List<Range> cellRanges(Box box) {
+        int fromRow = latIndex(box.minLat());
+        int toRow = latIndex(box.maxLat());
+        List<double[]> lonIntervals = box.lonIntervals();
+        boolean fullWidth = lonIntervals.size() == 1 && lonIntervals.getFirst()[0] <= -180
+                && lonIntervals.getFirst()[1] >= 180;
+
+        List<Range> ranges = new ArrayList<>();
+        if (fullWidth || toRow - fromRow + 1 > MAX_ROWS) {
+            ranges.add(new Range((long) fromRow * LON_CELLS, (long) toRow * LON_CELLS + LON_CELLS - 1));
+            return ranges;
+        }
+        for (int row = fromRow; row <= toRow; row++) {
+            for (double[] interval : lonIntervals) {
+                long rowStart = (long) row * LON_CELLS;
+                ranges.add(new Range(rowStart + lonIndex(interval[0]), rowStart + lonIndex(interval[1])));
+            }
+        }
+        return ranges;
+    }
+
+    private static int latIndex(double lat) {
+        return Math.clamp((long) Math.floor((lat + 90) / CELL_DEGREES), 0, LAT_CELLS - 1);
+    }
+
+    private static int lonIndex(double lon) {
+        return Math.clamp((long) Math.floor((lon + 180) / CELL_DEGREES), 0, LON_CELLS - 1);
+    }
+
+    public record Box(double minLat, double minLon, double maxLat, double maxLon) {
+
+        public List<double[]> lonIntervals() {
+            if (maxLon - minLon >= 360) {
+                return List.of(new double[]{-180, 180});
+            }
+            if (minLon < -180) {
+                return List.of(new double[]{minLon + 360, 180}, new double[]{-180, maxLon});
+            }
+            if (maxLon > 180) {
+                return List.of(new double[]{minLon, 180}, new double[]{-180, maxLon - 360});
+            }
+            if (minLon > maxLon) {
+                return List.of(new double[]{minLon, 180}, new double[]{-180, maxLon});
+            }
+            return List.of(new double[]{minLon, maxLon});
+        }
+    }
+
+    public record Range(long from, long to) {
+    }
+}
@@ -3,6 +3,8 @@ package ru.practicum.location.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Setter
 @Getter
@@ -11,6 +13,7 @@ import lombok.*;
 @Builder
 @Entity
 @Table(name = "locations")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations")
 public class Location {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,4 +24,12 @@ public class Location {
     private float lat;
     @Column(name = "lon", nullable = false)
     private float lon;
+    @Column(name = "grid_cell", nullable = false)
+    private long gridCell;
+
+    @PrePersist
+    @PreUpdate
+    void updateGridCell() {
+        gridCell = GeoGrid.cellOf(lat, lon);
+    }
 }
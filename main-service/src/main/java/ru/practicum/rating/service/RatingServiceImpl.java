@@ -71,6 +71,8 @@ public class RatingServiceImpl implements RatingService {
             if (rating.getIsLike().equals(likeValue)) {
                 throw new ConflictException((likeValue == 1 ? "Like" : "Dislike") + " already exists");
             } else {
+                addReaction(eventId, rating.getIsLike(), -1);
+                addReaction(eventId, likeValue, 1);
                 rating.setIsLike(likeValue);
                 ratingMapper.toDto(ratingRepository.save(rating));
             }
@@ -82,6 +84,7 @@ public class RatingServiceImpl implements RatingService {
                     .isLike(likeValue)
                     .build();
             ratingMapper.toDto(ratingRepository.save(rating));
+            addReaction(eventId, likeValue, 1);
         }
     }
 
@@ -98,11 +101,20 @@ public class RatingServiceImpl implements RatingService {
 
         if (rating.getIsLike().equals(likeValue)) {
             ratingRepository.delete(rating);
+            addReaction(eventId, likeValue, -1);
         } else {
             throw new ConflictException("No " + (likeValue == 1 ? "like" : "dislike") + " found to remove");
         }
     }
 
+    private void addReaction(long eventId, int likeValue, int delta) {
+        if (likeValue > 0) {
+            eventRepository.addReactions(eventId, delta, 0);
+        } else {
+            eventRepository.addReactions(eventId, 0, delta);
+        }
+    }
+
     private User getUser(long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found with id" + userId));
@@ -2,13 +2,18 @@ package ru.practicum.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.request.dto.ParticipationRequestDto;
 import ru.practicum.request.dto.RequestParamsUpdate;
+import ru.practicum.request.dto.WaitlistPositionDto;
+import ru.practicum.request.model.RequestStatus;
 import ru.practicum.request.service.RequestService;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -23,10 +28,25 @@ public class PrivateRequestController {
     }
 
     @PostMapping("/requests")
-    @ResponseStatus(HttpStatus.CREATED)
-    public ParticipationRequestDto create(@PathVariable("userId") long userId,
-                                          @RequestParam(value = "eventId") int eventId) {
-        return requestService.create(userId, eventId);
+    public ResponseEntity<ParticipationRequestDto> create(@PathVariable("userId") long userId,
+                                                          @RequestParam(value = "eventId") int eventId,
+                                                          @RequestParam(value = "waitlist", defaultValue = "false")
+                                                          boolean waitlist) {
+        ParticipationRequestDto request = requestService.create(userId, eventId, waitlist);
+        if (request.getStatus() == RequestStatus.QUEUED) {
+            URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/users/{userId}/requests/events/{eventId}")
+                    .buildAndExpand(userId, eventId)
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(request);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(request);
+    }
+
+    @GetMapping("/requests/events/{eventId}")
+    public ParticipationRequestDto getByEvent(@PathVariable("userId") long userId,
+                                              @PathVariable("eventId") long eventId) {
+        return requestService.getByEvent(userId, eventId);
     }
 
     @PatchMapping("/requests/{requestId}/cancel")
@@ -35,6 +55,12 @@ public class PrivateRequestController {
         return requestService.cancel(userId, requestId);
     }
 
+    @GetMapping("/requests/{requestId}/waitlist")
+    public WaitlistPositionDto getWaitlistPosition(@PathVariable("userId") long userId,
+                                                   @PathVariable("requestId") long requestId) {
+        return requestService.getWaitlistPosition(userId, requestId);
+    }
+
     @GetMapping("/events/{eventId}/requests")
     public List<ParticipationRequestDto> getRequestsOnUserEvent(@PathVariable("userId") long userId,
                                                                 @PathVariable("eventId") long eventId) {
@@ -1,13 +0,0 @@
-package ru.practicum.request.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.Setter;
-
-@Getter
-@Setter
-@AllArgsConstructor
-public class EventCountByRequest {
-    private Long eventId;
-    private Long count;
-}
@@ -0,0 +1,16 @@
+package ru.practicum.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.request.model.RequestStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistPositionDto {
+    private Long requestId;
+    private Long event;
+    private RequestStatus status;
+    private Long position;
+}
@@ -2,6 +2,7 @@ package ru.practicum.request.mapper;
 
 import org.mapstruct.*;
 import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.model.Admission;
 import ru.practicum.request.model.Request;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
@@ -12,4 +13,12 @@ public interface RequestMapper {
             @Mapping(source = "requester.id", target = "requester")
     })
     ParticipationRequestDto toParticipationRequestDto(Request request);
+
+    @Mappings({
+            @Mapping(target = "id", ignore = true),
+            @Mapping(target = "status", constant = "QUEUED"),
+            @Mapping(source = "eventId", target = "event"),
+            @Mapping(source = "requesterId", target = "requester")
+    })
+    ParticipationRequestDto toParticipationRequestDto(Admission admission);
 }
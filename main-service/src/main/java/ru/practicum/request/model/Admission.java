@@ -0,0 +1,10 @@
+package ru.practicum.request.model;
+
+import java.time.LocalDateTime;
+
+public record Admission(long eventId, long requesterId, LocalDateTime created, RequestStatus status) {
+
+    public Admission rejected() {
+        return new Admission(eventId, requesterId, created, RequestStatus.REJECTED);
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.request.model;
+
+public record EventSeats(int participantLimit, int confirmedRequests, boolean requestModeration) {
+}
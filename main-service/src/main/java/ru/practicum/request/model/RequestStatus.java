@@ -4,5 +4,7 @@ public enum RequestStatus {
     PENDING,
     REJECTED,
     CANCELED,
-    CONFIRMED
+    CONFIRMED,
+    WAITLISTED,
+    QUEUED
 }
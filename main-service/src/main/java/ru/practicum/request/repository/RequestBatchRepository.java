@@ -0,0 +1,83 @@
+package ru.practicum.request.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.request.model.Admission;
+import ru.practicum.request.model.EventSeats;
+import ru.practicum.request.model.RequestStatus;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class RequestBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO requests (created, event_id, requester_id, status) VALUES (?, ?, ?, ?)";
+
+    private static final String CONFIRM_SQL = "UPDATE events SET confirmed_requests = confirmed_requests + ? " +
+            "WHERE event_id = ? " +
+            "AND (participant_limit = 0 OR confirmed_requests + ? <= participant_limit)";
+
+    private static final String FREE_SEATS_SQL = "SELECT CASE WHEN participant_limit = 0 THEN ? " +
+            "ELSE participant_limit - confirmed_requests END FROM events WHERE event_id = ? FOR UPDATE";
+
+    private static final String SEATS_SQL =
+            "SELECT participant_limit, confirmed_requests, request_moderation FROM events WHERE event_id = ?";
+
+    private static final String REQUESTERS_SQL = "SELECT requester_id FROM requests WHERE event_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public List<Admission> insert(List<Admission> admissions) {
+        Map<Long, List<Admission>> confirmed = admissions.stream()
+                .filter(admission -> admission.status() == RequestStatus.CONFIRMED)
+                .collect(Collectors.groupingBy(Admission::eventId));
+        List<Admission> rejected = new ArrayList<>();
+        confirmed.forEach((eventId, group) -> {
+            int granted = reserveSeats(eventId, group.size());
+            rejected.addAll(group.subList(granted, group.size()));
+        });
+
+        Set<Admission> overbooked = new HashSet<>(rejected);
+        List<Object[]> rows = new ArrayList<>(admissions.size());
+        for (Admission admission : admissions) {
+            RequestStatus status = overbooked.contains(admission) ? RequestStatus.REJECTED : admission.status();
+            rows.add(new Object[]{Timestamp.valueOf(admission.created()), admission.eventId(),
+                    admission.requesterId(), status.name()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        return rejected;
+    }
+
+    private int reserveSeats(long eventId, int seats) {
+        if (jdbcTemplate.update(CONFIRM_SQL, seats, eventId, seats) > 0) {
+            return seats;
+        }
+        Integer free = jdbcTemplate.queryForObject(FREE_SEATS_SQL, Integer.class, seats, eventId);
+        int granted = free == null ? 0 : Math.max(0, Math.min(free, seats));
+        if (granted > 0 && jdbcTemplate.update(CONFIRM_SQL, granted, eventId, granted) == 0) {
+            return 0;
+        }
+        return granted;
+    }
+
+    public EventSeats findSeats(long eventId) {
+        return jdbcTemplate.queryForObject(SEATS_SQL, (rs, rowNum) -> new EventSeats(
+                rs.getInt("participant_limit"), rs.getInt("confirmed_requests"),
+                rs.getBoolean("request_moderation")), eventId);
+    }
+
+    public Set<Long> findRequesterIds(long eventId) {
+        return new HashSet<>(jdbcTemplate.queryForList(REQUESTERS_SQL, Long.class, eventId));
+    }
+}
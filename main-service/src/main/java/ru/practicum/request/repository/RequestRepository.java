@@ -1,48 +1,56 @@
 package ru.practicum.request.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.event.model.Event;
-import ru.practicum.request.dto.EventCountByRequest;
 import ru.practicum.request.model.Request;
+import ru.practicum.request.model.RequestStatus;
 import ru.practicum.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RequestRepository extends JpaRepository<Request, Long>, QuerydslPredicateExecutor<Event> {
 
-    List<Request> findByEventAndRequester(Event event, User user);
-
     List<Request> findByRequester(User user);
 
     @Query("SELECT r FROM Request r WHERE r.id IN ?1")
     List<Request> findAllById(List<Long> requestIds);
 
-    @Query(value = "SELECT new ru.practicum.request.dto.EventCountByRequest(e.id, COUNT(r.id)) " +
-            "FROM Event e " +
-            "LEFT JOIN Request r ON r.event.id = e.id AND r.status = 'CONFIRMED' " +
-            "WHERE e.id IN ?1 " +
-            "GROUP BY e.id, e.participantLimit " +
-            "HAVING COUNT(r.id) >= e.participantLimit")
-    List<EventCountByRequest> findConfirmedRequestWithLimitCheck(List<Event> events);
-
-    @Query(value = "SELECT new ru.practicum.request.dto.EventCountByRequest(e.id, COUNT(r.id)) " +
-            "FROM Event e " +
-            "LEFT JOIN Request r ON r.event.id = e.id AND r.status = 'CONFIRMED' " +
-            "WHERE e IN ?1 " +
-            "GROUP BY e.id")
-    List<EventCountByRequest> findConfirmedRequestWithoutLimitCheck(List<Event> events);
-
-    @Query(value = "SELECT (COUNT(r.id)>=?2) " +
-            "FROM Request r " +
-            "WHERE r.event.id = ?1 AND r.status= 'CONFIRMED'")
-    boolean isParticipantLimitReached(long eventId, int limit);
-
-    @Query(value = "SELECT COUNT(r.id) AS count " +
-            "FROM Request r " +
-            "WHERE r.event.id = ?1 AND r.status = 'CONFIRMED'")
-    Integer countConfirmedRequest(long eventId);
-
     List<Request> findByEvent(Event event);
+
+    Optional<Request> findByEventIdAndRequesterId(long eventId, long requesterId);
+
+    @Query("SELECT r.id FROM Request r WHERE r.event.id = :eventId AND r.status = :status ORDER BY r.id")
+    List<Long> findIdsByEventAndStatus(@Param("eventId") long eventId, @Param("status") RequestStatus status);
+
+    @Query("SELECT r.id FROM Request r WHERE r.event.id = :eventId AND r.status = :status ORDER BY r.id")
+    List<Long> findIdsByEventAndStatus(@Param("eventId") long eventId, @Param("status") RequestStatus status,
+                                       Limit limit);
+
+    boolean existsByEventIdAndStatus(long eventId, RequestStatus status);
+
+    long countByEventIdAndStatus(long eventId, RequestStatus status);
+
+    @Query("SELECT COUNT(r) FROM Request r WHERE r.event.id = :eventId AND r.status = :status AND r.id <= :requestId")
+    long countAhead(@Param("eventId") long eventId, @Param("status") RequestStatus status,
+                    @Param("requestId") long requestId);
+
+    @Query("SELECT e.id FROM Event e WHERE e.id > :afterId AND e.highDemand = false " +
+            "AND EXISTS (SELECT w.id FROM Request w WHERE w.event = e AND w.status = :waitlisted) " +
+            "AND (e.participantLimit = 0 OR e.confirmedRequests + CASE WHEN e.requestModeration = true " +
+            "THEN (SELECT COUNT(p) FROM Request p WHERE p.event = e AND p.status = :pending) ELSE 0 END " +
+            "< e.participantLimit) ORDER BY e.id")
+    List<Long> findEventIdsWithFreeSeats(@Param("waitlisted") RequestStatus waitlisted,
+                                         @Param("pending") RequestStatus pending,
+                                         @Param("afterId") long afterId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Request r SET r.status = :status WHERE r.id IN :requestIds")
+    int updateStatus(@Param("requestIds") Collection<Long> requestIds, @Param("status") RequestStatus status);
 }
@@ -0,0 +1,251 @@
+package ru.practicum.request.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.exeption.ConflictException;
+import ru.practicum.request.model.Admission;
+import ru.practicum.request.model.EventSeats;
+import ru.practicum.request.model.RequestStatus;
+import ru.practicum.request.repository.RequestBatchRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class AdmissionQueue {
+
+    private final RequestBatchRepository requestBatchRepository;
+    private final int batchSize;
+    private final long idleMs;
+    private final long flushIntervalMs;
+    private final ScheduledExecutorService flusher;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final Queue<Admission> admissions = new ConcurrentLinkedQueue<>();
+
+    public AdmissionQueue(RequestBatchRepository requestBatchRepository,
+                          @Value("${requests.admission.batch-size:500}") int batchSize,
+                          @Value("${requests.admission.idle-ms:600000}") long idleMs,
+                          @Value("${requests.admission.flush-interval-ms:100}") long flushIntervalMs) {
+        this.requestBatchRepository = requestBatchRepository;
+        this.batchSize = batchSize;
+        this.idleMs = idleMs;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "admission-flusher"));
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Не удалось записать очередь заявок: {}", e.getMessage(), e);
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Optional<Admission> admit(long eventId, long requesterId) {
+        while (true) {
+            Lane lane = lane(eventId);
+            synchronized (lane) {
+                if (lane.closed) {
+                    continue;
+                }
+                if (lane.stale) {
+                    return Optional.empty();
+                }
+                lane.lastAccess = System.currentTimeMillis();
+                if (lane.requesters.contains(requesterId)) {
+                    throw new ConflictException("Повторный запрос не допускается");
+                }
+                if (lane.remaining <= 0) {
+                    throw new ConflictException("Достигнут лимит запросов");
+                }
+                if (lane.autoConfirm) {
+                    lane.remaining--;
+                }
+                lane.requesters.add(requesterId);
+                Admission admission = new Admission(eventId, requesterId, LocalDateTime.now(),
+                        lane.autoConfirm ? RequestStatus.CONFIRMED : RequestStatus.PENDING);
+                lane.queued.put(requesterId, admission);
+                admissions.add(admission);
+                return Optional.of(admission);
+            }
+        }
+    }
+
+    public Optional<Admission> findQueued(long eventId, long requesterId) {
+        Lane lane = lanes.get(eventId);
+        if (lane == null) {
+            return Optional.empty();
+        }
+        synchronized (lane) {
+            return Optional.ofNullable(lane.queued.get(requesterId));
+        }
+    }
+
+    public void release(long eventId) {
+        Lane lane = lanes.get(eventId);
+        if (lane != null) {
+            synchronized (lane) {
+                if (lane.autoConfirm && lane.remaining != Long.MAX_VALUE) {
+                    lane.remaining++;
+                }
+            }
+        }
+    }
+
+    public void evict(long eventId) {
+        Lane lane = lanes.get(eventId);
+        if (lane != null) {
+            synchronized (lane) {
+                lane.stale = true;
+                closeIfDrained(eventId, lane);
+            }
+        }
+    }
+
+    public void flush() {
+        List<Admission> batch = new ArrayList<>(batchSize);
+        Admission admission;
+        while (batch.size() < batchSize && (admission = admissions.poll()) != null) {
+            batch.add(admission);
+        }
+        if (batch.isEmpty()) {
+            evictIdle();
+            return;
+        }
+        List<Admission> rejected = new ArrayList<>();
+        try {
+            rejected.addAll(requestBatchRepository.insert(batch));
+        } catch (DataAccessException e) {
+            log.warn("Пакет из {} заявок не записан, повтор по одной: {}", batch.size(), e.getMessage());
+            for (Admission single : batch) {
+                try {
+                    rejected.addAll(requestBatchRepository.insert(List.of(single)));
+                } catch (DataAccessException ex) {
+                    log.error("Не удалось записать заявку {}: {}", single, ex.getMessage());
+                    revert(single);
+                }
+            }
+        }
+        for (Admission single : rejected) {
+            log.warn("Заявка {} отклонена: достигнут лимит участников", single);
+            overbooked(single);
+        }
+        completed(batch);
+    }
+
+    @PreDestroy
+    public void drain() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        while (!admissions.isEmpty()) {
+            flush();
+        }
+    }
+
+    private Lane lane(long eventId) {
+        Lane lane = lanes.get(eventId);
+        if (lane != null) {
+            return lane;
+        }
+        Lane loaded = new Lane(requestBatchRepository.findSeats(eventId),
+                requestBatchRepository.findRequesterIds(eventId));
+        Lane existing = lanes.putIfAbsent(eventId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void revert(Admission admission) {
+        boolean recorded;
+        try {
+            requestBatchRepository.insert(List.of(admission.rejected()));
+            recorded = true;
+        } catch (DataAccessException e) {
+            log.error("Не удалось записать отклонение заявки {}: {}", admission, e.getMessage());
+            recorded = false;
+        }
+        Lane lane = lanes.get(admission.eventId());
+        synchronized (lane) {
+            if (!recorded) {
+                lane.requesters.remove(admission.requesterId());
+            }
+            if (admission.status() == RequestStatus.CONFIRMED) {
+                lane.remaining++;
+            }
+        }
+    }
+
+    private void overbooked(Admission admission) {
+        Lane lane = lanes.get(admission.eventId());
+        synchronized (lane) {
+            lane.remaining = 0;
+            lane.stale = true;
+        }
+    }
+
+    private void completed(List<Admission> batch) {
+        Map<Long, List<Admission>> written = batch.stream()
+                .collect(Collectors.groupingBy(Admission::eventId));
+        written.forEach((eventId, group) -> {
+            Lane lane = lanes.get(eventId);
+            synchronized (lane) {
+                group.forEach(admission -> lane.queued.remove(admission.requesterId()));
+                if (lane.stale) {
+                    closeIfDrained(eventId, lane);
+                }
+            }
+        });
+    }
+
+    private void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleMs;
+        lanes.forEach((eventId, lane) -> {
+            synchronized (lane) {
+                if (lane.lastAccess < idleSince) {
+                    closeIfDrained(eventId, lane);
+                }
+            }
+        });
+    }
+
+    private void closeIfDrained(long eventId, Lane lane) {
+        if (lane.queued.isEmpty()) {
+            lane.closed = true;
+            lanes.remove(eventId, lane);
+        }
+    }
+
+    private static class Lane {
+        private final boolean autoConfirm;
+        private final Set<Long> requesters;
+        private final Map<Long, Admission> queued = new HashMap<>();
+        private long remaining;
+        private long lastAccess = System.currentTimeMillis();
+        private boolean stale;
+        private boolean closed;
+
+        Lane(EventSeats seats, Set<Long> requesters) {
+            this.autoConfirm = !seats.requestModeration() || seats.participantLimit() == 0;
+            this.requesters = requesters;
+            this.remaining = seats.participantLimit() == 0
+                    ? Long.MAX_VALUE
+                    : seats.participantLimit() - seats.confirmedRequests();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.request.service;
 import ru.practicum.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.request.dto.ParticipationRequestDto;
 import ru.practicum.request.dto.RequestParamsUpdate;
+import ru.practicum.request.dto.WaitlistPositionDto;
 
 import java.util.List;
 
@@ -10,11 +11,17 @@ public interface RequestService {
 
     List<ParticipationRequestDto> getAll(long userId);
 
-    ParticipationRequestDto create(long userId, long eventId);
+    ParticipationRequestDto create(long userId, long eventId, boolean waitlist);
+
+    ParticipationRequestDto getByEvent(long userId, long eventId);
 
     ParticipationRequestDto cancel(long userId, long requestId);
 
     List<ParticipationRequestDto> findRequestsOnUserEvent(long userId, long eventId);
 
     EventRequestStatusUpdateResult updateStatus(RequestParamsUpdate params);
+
+    WaitlistPositionDto getWaitlistPosition(long userId, long requestId);
+
+    int promoteWaitlist(long eventId, int batchSize);
 }
@@ -1,8 +1,14 @@
 package ru.practicum.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 import ru.practicum.event.model.Event;
 import ru.practicum.event.model.EventState;
 import ru.practicum.event.repository.EventRepository;
@@ -11,18 +17,19 @@ import ru.practicum.exeption.NotFoundException;
 import ru.practicum.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.request.dto.ParticipationRequestDto;
 import ru.practicum.request.dto.RequestParamsUpdate;
+import ru.practicum.request.dto.WaitlistPositionDto;
 import ru.practicum.request.mapper.RequestMapper;
+import ru.practicum.request.model.Admission;
+import ru.practicum.request.model.EventSeats;
 import ru.practicum.request.model.Request;
 import ru.practicum.request.model.RequestStatus;
+import ru.practicum.request.repository.RequestBatchRepository;
 import ru.practicum.request.repository.RequestRepository;
 import ru.practicum.user.model.User;
 import ru.practicum.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +37,9 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class RequestServiceImpl implements RequestService {
 
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String UNIQUE_EVENT_REQUESTER = "uq_requests_event_requester";
+
     private final RequestRepository requestRepository;
 
     private final RequestMapper requestMapper;
@@ -38,6 +48,10 @@ public class RequestServiceImpl implements RequestService {
 
     private final EventRepository eventRepository;
 
+    private final AdmissionQueue admissionQueue;
+
+    private final RequestBatchRepository requestBatchRepository;
+
     @Override
     public List<ParticipationRequestDto> getAll(long userId) {
         User user = getUser(userId);
@@ -49,37 +63,118 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     @Transactional
-    public ParticipationRequestDto create(long userId, long evenId) {
+    public ParticipationRequestDto create(long userId, long evenId, boolean waitlist) {
         User requester = getUser(userId);
         Event event = getEvent(evenId);
 
         if (event.getInitiator().getId().equals(userId)) {
             throw new ConflictException("Организатор события не может добавить запрос на участие в своем мероприятии");
         }
-        if (!requestRepository.findByEventAndRequester(event, requester).isEmpty()) {
-            throw new ConflictException("Повторный запрос не допускается");
-        }
         if (!event.getState().equals(EventState.PUBLISHED)) {
             throw new ConflictException("Событие не опубликовано");
         }
-        if (!(event.getParticipantLimit() == 0)) {
-            checkEventRequestLimit(event);
+        if (event.isHighDemand()) {
+            if (!(event.getParticipantLimit() == 0)) {
+                checkEventRequestLimit(event);
+            }
+            Optional<Admission> admission = admissionQueue.admit(evenId, userId);
+            if (admission.isPresent()) {
+                return requestMapper.toParticipationRequestDto(admission.get());
+            }
+        }
+
+        boolean confirmed = !event.isRequestModeration() || event.getParticipantLimit() == 0;
+        boolean full = event.getParticipantLimit() != 0
+                && (event.getConfirmedRequests() >= event.getParticipantLimit()
+                || !confirmed && requestRepository.existsByEventIdAndStatus(evenId, RequestStatus.WAITLISTED));
+        if (full && !waitlist) {
+            throw new ConflictException("Достигнут лимит запросов");
         }
-        Integer countConfirmedRequest = requestRepository.countConfirmedRequest(evenId);
-        event.setConfirmedRequests(countConfirmedRequest);
 
         Request request = new Request();
         request.setRequester(requester);
         request.setEvent(event);
         request.setCreated(LocalDateTime.now());
 
-        if (event.isRequestModeration() && event.getParticipantLimit() != 0) {
-            request.setStatus(RequestStatus.PENDING);
+        if (full) {
+            request.setStatus(RequestStatus.WAITLISTED);
         } else {
-            request.setStatus(RequestStatus.CONFIRMED);
+            request.setStatus(confirmed ? RequestStatus.CONFIRMED : RequestStatus.PENDING);
+        }
+
+        Request saved = insert(request);
+        if (saved.getStatus().equals(RequestStatus.CONFIRMED)
+                && eventRepository.reserveSeatUnlessWaitlisted(evenId, RequestStatus.WAITLISTED) == 0) {
+            if (!waitlist) {
+                throw new ConflictException("Достигнут лимит запросов");
+            }
+            saved.setStatus(RequestStatus.WAITLISTED);
+        }
+        return requestMapper.toParticipationRequestDto(saved);
+    }
+
+    @Override
+    public ParticipationRequestDto getByEvent(long userId, long eventId) {
+        getUser(userId);
+        Optional<Admission> queued = admissionQueue.findQueued(eventId, userId);
+        if (queued.isPresent()) {
+            return requestMapper.toParticipationRequestDto(queued.get());
         }
+        return requestRepository.findByEventIdAndRequesterId(eventId, userId)
+                .map(requestMapper::toParticipationRequestDto)
+                .orElseThrow(() -> new NotFoundException("Запрос пользователя с ID = " + userId +
+                        " на участие в событии с ID = " + eventId + " не найден"));
+    }
 
-        return requestMapper.toParticipationRequestDto(requestRepository.save(request));
+    @Override
+    public WaitlistPositionDto getWaitlistPosition(long userId, long requestId) {
+        Request request = getRequest(requestId);
+        if (request.getRequester().getId() != userId) {
+            throw new NotFoundException("Запрос с ID = " + requestId + " не найден");
+        }
+        long eventId = request.getEvent().getId();
+        Long position = null;
+        if (request.getStatus().equals(RequestStatus.WAITLISTED)) {
+            position = requestRepository.countAhead(eventId, RequestStatus.WAITLISTED, requestId);
+        }
+        return new WaitlistPositionDto(requestId, eventId, request.getStatus(), position);
+    }
+
+    @Override
+    @Transactional
+    public int promoteWaitlist(long eventId, int batchSize) {
+        EventSeats seats = requestBatchRepository.findSeats(eventId);
+        boolean autoConfirm = !seats.requestModeration() || seats.participantLimit() == 0;
+        long free = seats.participantLimit() == 0
+                ? batchSize
+                : seats.participantLimit() - seats.confirmedRequests();
+        if (!autoConfirm) {
+            free -= requestRepository.countByEventIdAndStatus(eventId, RequestStatus.PENDING);
+        }
+        if (free <= 0) {
+            return 0;
+        }
+        List<Long> requestIds = requestRepository.findIdsByEventAndStatus(eventId, RequestStatus.WAITLISTED,
+                Limit.of((int) Math.min(free, batchSize)));
+        if (requestIds.isEmpty() || autoConfirm && !tryReserveSeats(eventId, requestIds.size())) {
+            return 0;
+        }
+        requestRepository.updateStatus(requestIds, autoConfirm ? RequestStatus.CONFIRMED : RequestStatus.PENDING);
+        return requestIds.size();
+    }
+
+    private Request insert(Request request) {
+        try {
+            return requestRepository.saveAndFlush(request);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && UNIQUE_VIOLATION.equals(violation.getSQLState())
+                    && violation.getConstraintName() != null
+                    && UNIQUE_EVENT_REQUESTER.equalsIgnoreCase(StringUtils.unqualify(violation.getConstraintName()))) {
+                throw new ConflictException("Повторный запрос не допускается");
+            }
+            throw e;
+        }
     }
 
     @Transactional
@@ -90,6 +185,16 @@ public class RequestServiceImpl implements RequestService {
         if (request.getRequester().getId() != userId) {
             throw new ConflictException("Пользователь не является отправителем запроса");
         }
+        if (request.getStatus().equals(RequestStatus.CONFIRMED)) {
+            long eventId = request.getEvent().getId();
+            eventRepository.addConfirmedRequests(eventId, -1);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    admissionQueue.release(eventId);
+                }
+            });
+        }
         request.setStatus(RequestStatus.CANCELED);
         Request saved = requestRepository.save(request);
         return requestMapper.toParticipationRequestDto(saved);
@@ -111,45 +216,82 @@ public class RequestServiceImpl implements RequestService {
     @Transactional
     public EventRequestStatusUpdateResult updateStatus(RequestParamsUpdate params) {
         User user = getUser(params.getUserId());
-        Event event = getUserEvent(params.getEventId(), user);
+        Event event = eventRepository.findForUpdate(params.getEventId(), user)
+                .orElseThrow(() -> new NotFoundException("Событие с ID = " + params.getEventId() +
+                        " для пользователя с ID = " + user.getId() + " не найдено"));
 
-        List<Long> requestIds = new ArrayList<>(params.getDto().getRequestIds());
+        Set<Long> requestIds = params.getDto().getRequestIds();
+        List<Long> pendingIds = requestRepository.findIdsByEventAndStatus(event.getId(), RequestStatus.PENDING);
+        List<Long> selectedIds = pendingIds.stream()
+                .filter(requestIds::contains)
+                .toList();
 
-        List<Request> requests = requestRepository.findAllById(requestIds);
+        if (params.getDto().getStatus().equals(RequestStatus.REJECTED)) {
+            if (selectedIds.size() != requestIds.size()) {
+                throw notPendingConflict(requestIds, selectedIds);
+            }
+            requestRepository.updateStatus(selectedIds, RequestStatus.REJECTED);
+            return new EventRequestStatusUpdateResult(Collections.emptyList(), toDtos(selectedIds));
+        }
 
-        Map<Long, Request> requestMap = requests.stream()
-                .collect(Collectors.toMap(Request::getId, request -> request));
+        int limit = event.getParticipantLimit();
+        int capacity = limit == 0 ? selectedIds.size() : limit - event.getConfirmedRequests();
+        if (capacity <= 0) {
+            throw new ConflictException("Достигнут лимит запросов");
+        }
+        List<Long> confirmedIds = selectedIds.subList(0, Math.min(capacity, selectedIds.size()));
+        List<Long> rejectedIds = List.of();
+        if (limit != 0 && confirmedIds.size() == capacity) {
+            Set<Long> confirmed = new HashSet<>(confirmedIds);
+            rejectedIds = pendingIds.stream()
+                    .filter(id -> !confirmed.contains(id))
+                    .toList();
+        }
 
-        List<ParticipationRequestDto> updatedRequests = new ArrayList<>();
-        List<ParticipationRequestDto> rejectedRequests = new ArrayList<>();
+        reserveSeats(event.getId(), confirmedIds.size());
+        if (!confirmedIds.isEmpty()) {
+            requestRepository.updateStatus(confirmedIds, RequestStatus.CONFIRMED);
+        }
+        if (!rejectedIds.isEmpty()) {
+            requestRepository.updateStatus(rejectedIds, RequestStatus.REJECTED);
+        }
+        return new EventRequestStatusUpdateResult(toDtos(confirmedIds), toDtos(rejectedIds));
+    }
 
-        if (params.getDto().getStatus().equals(RequestStatus.REJECTED)) {
-            for (Long requestId : requestIds) {
-                Request request = requestMap.get(requestId);
-                if (request != null && request.getStatus().equals(RequestStatus.PENDING)) {
-                    request.setStatus(RequestStatus.REJECTED);
-                    updatedRequests.add(requestMapper.toParticipationRequestDto(requestRepository.save(request)));
-                    rejectedRequests.add(requestMapper.toParticipationRequestDto(request));
-                } else {
-                    throw new ConflictException("Запрос со статусом " + (request != null ? request.getStatus() : "UNKNOWN") + " еще не был отклонен");
-                }
-            }
-            return new EventRequestStatusUpdateResult(Collections.emptyList(), rejectedRequests);
-        } else {
-            checkEventRequestLimit(event);
-            for (Long requestId : requestIds) {
-                Request request = requestMap.get(requestId);
-                if (request != null && request.getStatus().equals(RequestStatus.PENDING)) {
-                    request.setStatus(RequestStatus.CONFIRMED);
-                    updatedRequests.add(requestMapper.toParticipationRequestDto(requestRepository.save(request)));
-                }
-            }
-            return new EventRequestStatusUpdateResult(updatedRequests, Collections.emptyList());
+    private List<ParticipationRequestDto> toDtos(List<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return List.of();
         }
+        return requestRepository.findAllById(requestIds).stream()
+                .sorted(Comparator.comparing(Request::getId))
+                .map(requestMapper::toParticipationRequestDto)
+                .toList();
+    }
+
+    private ConflictException notPendingConflict(Set<Long> requestIds, List<Long> pendingIds) {
+        Set<Long> pending = new HashSet<>(pendingIds);
+        Long requestId = requestIds.stream()
+                .filter(id -> !pending.contains(id))
+                .findFirst()
+                .orElseThrow();
+        String status = requestRepository.findById(requestId)
+                .map(request -> request.getStatus().name())
+                .orElse("UNKNOWN");
+        return new ConflictException("Запрос со статусом " + status + " еще не был отклонен");
+    }
+
+    private void reserveSeats(long eventId, int seats) {
+        if (seats > 0 && !tryReserveSeats(eventId, seats)) {
+            throw new ConflictException("Достигнут лимит запросов");
+        }
+    }
+
+    private boolean tryReserveSeats(long eventId, int seats) {
+        return eventRepository.reserveSeats(eventId, seats) > 0;
     }
 
     private void checkEventRequestLimit(Event event) {
-        if (requestRepository.isParticipantLimitReached(event.getId(), event.getParticipantLimit())) {
+        if (event.getConfirmedRequests() >= event.getParticipantLimit()) {
             throw new ConflictException("Достигнут лимит запросов");
         }
     }
@@ -0,0 +1,60 @@
+package ru.practicum.request.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.request.model.RequestStatus;
+import ru.practicum.request.repository.RequestRepository;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class WaitlistPromoter {
+
+    private final RequestRepository requestRepository;
+    private final RequestService requestService;
+    private final int eventBatchSize;
+    private final int batchSize;
+
+    public WaitlistPromoter(RequestRepository requestRepository,
+                            RequestService requestService,
+                            @Value("${requests.waitlist.event-batch-size:100}") int eventBatchSize,
+                            @Value("${requests.waitlist.batch-size:500}") int batchSize) {
+        this.requestRepository = requestRepository;
+        this.requestService = requestService;
+        this.eventBatchSize = eventBatchSize;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${requests.waitlist.promote-interval-ms:1000}")
+    public void promote() {
+        long afterId = 0;
+        List<Long> eventIds = findEventIds(afterId);
+        while (!eventIds.isEmpty()) {
+            for (Long eventId : eventIds) {
+                promote(eventId);
+            }
+            afterId = eventIds.getLast();
+            eventIds = findEventIds(afterId);
+        }
+    }
+
+    private List<Long> findEventIds(long afterId) {
+        return requestRepository.findEventIdsWithFreeSeats(RequestStatus.WAITLISTED, RequestStatus.PENDING, afterId,
+                Limit.of(eventBatchSize));
+    }
+
+    private void promote(long eventId) {
+        try {
+            int promoted = requestService.promoteWaitlist(eventId, batchSize);
+            if (promoted > 0) {
+                log.info("Из листа ожидания события {} переведено заявок: {}", eventId, promoted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обработать лист ожидания события {}: {}", eventId, e.getMessage());
+        }
+    }
+}
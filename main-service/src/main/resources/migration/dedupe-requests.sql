@@ -0,0 +1,8 @@
+BEGIN;
+
+DELETE FROM requests r WHERE EXISTS (SELECT 1 FROM requests d
+    WHERE d.event_id = r.event_id AND d.requester_id = r.requester_id AND d.request_id < r.request_id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_requests_event_requester ON requests (event_id, requester_id);
+
+COMMIT;
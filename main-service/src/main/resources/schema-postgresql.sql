@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS ix_requests_waitlisted ON requests (event_id, request_id) WHERE status = 'WAITLISTED';
+
+CREATE INDEX IF NOT EXISTS ix_events_fts ON events USING GIN
+    ((setweight(to_tsvector('simple', annotation), 'A') || setweight(to_tsvector('simple', description), 'B')));
@@ -1,6 +1,6 @@
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS categories CASCADE;
-DROP TABLE IF EXISTS location CASCADE;
+DROP TABLE IF EXISTS locations CASCADE;
 DROP TABLE IF EXISTS events CASCADE;
 DROP TABLE IF EXISTS compilations CASCADE;
 DROP TABLE IF EXISTS compilations_events CASCADE;
@@ -23,7 +23,8 @@ CREATE TABLE IF NOT EXISTS locations
 (
     location_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
     lat FLOAT NOT NULL,
-    lon FLOAT NOT NULL
+    lon FLOAT NOT NULL,
+    grid_cell BIGINT NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS events
@@ -31,7 +32,7 @@ CREATE TABLE IF NOT EXISTS events
     event_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
     annotation VARCHAR(2000) NOT NULL,
     category_id BIGINT NOT NULL,
-    confirmed_requests INT,
+    confirmed_requests INT NOT NULL DEFAULT 0,
     created_on TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     description VARCHAR(7000) NOT NULL,
     event_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -43,6 +44,12 @@ CREATE TABLE IF NOT EXISTS events
     request_moderation BOOLEAN,
     state VARCHAR(100) NOT NULL,
     title VARCHAR(120) NOT NULL,
+    views BIGINT NOT NULL DEFAULT 0,
+    likes BIGINT NOT NULL DEFAULT 0,
+    dislikes BIGINT NOT NULL DEFAULT 0,
+    rating BIGINT NOT NULL DEFAULT 0,
+    updated_on TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT LOCALTIMESTAMP,
+    high_demand BOOLEAN NOT NULL DEFAULT FALSE,
     CONSTRAINT events_location FOREIGN KEY (location_id) REFERENCES locations (location_id) ON DELETE CASCADE,
     CONSTRAINT category_names FOREIGN KEY (category_id) REFERENCES categories (category_id) ON DELETE CASCADE,
     CONSTRAINT initiator_constraint FOREIGN KEY (initiator_id) REFERENCES users (user_id) ON DELETE CASCADE
@@ -55,10 +62,11 @@ CREATE TABLE IF NOT EXISTS requests
     event_id BIGINT NOT NULL,
     requester_id BIGINT NOT NULL,
     status CHARACTER VARYING(100) NOT NULL,
-    CONSTRAINT requests_events FOREIGN KEY (event_id) REFERENCES events (event_id) ON DELETE CASCADE,
-    CONSTRAINT unique_requester_event UNIQUE (request_id, event_id)
+    CONSTRAINT requests_events FOREIGN KEY (event_id) REFERENCES events (event_id) ON DELETE CASCADE
 );
 
+ALTER TABLE requests DROP CONSTRAINT IF EXISTS unique_requester_event;
+
 CREATE TABLE IF NOT EXISTS compilations
 (
     compilation_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
@@ -82,4 +90,18 @@ CREATE TABLE IF NOT EXISTS event_ratings
     event_id BIGINT NOT NULL REFERENCES events (event_id) ON DELETE CASCADE,
     is_like SMALLINT NOT NULL,
     CONSTRAINT unique_user_likes_event UNIQUE (user_id, event_id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS ix_locations_grid_cell ON locations (grid_cell, lat, lon);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_requests_event_requester ON requests (event_id, requester_id);
+
+CREATE INDEX IF NOT EXISTS ix_requests_event_status ON requests (event_id, status, request_id);
+
+CREATE INDEX IF NOT EXISTS ix_events_location ON events (location_id);
+
+CREATE INDEX IF NOT EXISTS ix_events_event_date ON events (event_date, event_id);
+
+CREATE INDEX IF NOT EXISTS ix_events_views ON events (views, event_id);
+
+CREATE INDEX IF NOT EXISTS ix_events_rating ON events (rating, event_id);
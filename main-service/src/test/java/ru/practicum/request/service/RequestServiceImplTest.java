@@ -0,0 +1,226 @@
+package ru.practicum.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.category.dto.NewCategoryDto;
+import ru.practicum.category.service.CategoryService;
+import ru.practicum.event.dto.EventAction;
+import ru.practicum.event.dto.EventFullDto;
+import ru.practicum.event.dto.NewEventDto;
+import ru.practicum.event.dto.UpdateEventAdminRequest;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.service.EventService;
+import ru.practicum.exeption.ConflictException;
+import ru.practicum.location.dto.LocationDto;
+import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.dto.RequestParamsUpdate;
+import ru.practicum.request.dto.WaitlistPositionDto;
+import ru.practicum.request.model.RequestStatus;
+import ru.practicum.request.repository.RequestRepository;
+import ru.practicum.user.dto.NewUserRequest;
+import ru.practicum.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "requests.waitlist.promote-interval-ms=3600000")
+class RequestServiceImplTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private WaitlistPromoter waitlistPromoter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void concurrentCreateNeverOverbooksEvent() throws Exception {
+        int limit = 3;
+        int requesters = 20;
+        long eventId = createPublishedEvent(limit, false).getId();
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < requesters; i++) {
+            userIds.add(createUser());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(requesters);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (long userId : userIds) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    requestService.create(userId, eventId, false);
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int admitted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                admitted++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(admitted).isEqualTo(limit);
+        assertThat(requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED)).isEqualTo(limit);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(limit);
+    }
+
+    @Test
+    void waitlistKeepsJoinOrder() {
+        long eventId = createPublishedEvent(1, false).getId();
+        requestService.create(createUser(), eventId, false);
+        long secondId = createUser();
+        long thirdId = createUser();
+
+        assertThatThrownBy(() -> requestService.create(secondId, eventId, false))
+                .isInstanceOf(ConflictException.class);
+        ParticipationRequestDto second = requestService.create(secondId, eventId, true);
+        ParticipationRequestDto third = requestService.create(thirdId, eventId, true);
+
+        assertThat(second.getStatus()).isEqualTo(RequestStatus.WAITLISTED);
+        assertThat(third.getStatus()).isEqualTo(RequestStatus.WAITLISTED);
+        assertThat(requestService.getWaitlistPosition(secondId, second.getId()).getPosition()).isEqualTo(1);
+        assertThat(requestService.getWaitlistPosition(thirdId, third.getId()).getPosition()).isEqualTo(2);
+    }
+
+    @Test
+    void cancelFreesSeat() {
+        long eventId = createPublishedEvent(1, false).getId();
+        long firstId = createUser();
+        ParticipationRequestDto first = requestService.create(firstId, eventId, false);
+
+        requestService.cancel(firstId, first.getId());
+
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isZero();
+        ParticipationRequestDto second = requestService.create(createUser(), eventId, false);
+        assertThat(second.getStatus()).isEqualTo(RequestStatus.CONFIRMED);
+    }
+
+    @Test
+    void cancelPromotesWaitlistedInJoinOrder() {
+        long eventId = createPublishedEvent(1, false).getId();
+        long firstId = createUser();
+        long secondId = createUser();
+        long thirdId = createUser();
+        long fourthId = createUser();
+        ParticipationRequestDto first = requestService.create(firstId, eventId, false);
+        ParticipationRequestDto second = requestService.create(secondId, eventId, true);
+        ParticipationRequestDto third = requestService.create(thirdId, eventId, true);
+        ParticipationRequestDto fourth = requestService.create(fourthId, eventId, true);
+
+        requestService.cancel(firstId, first.getId());
+        waitlistPromoter.promote();
+
+        assertThat(requestService.getWaitlistPosition(secondId, second.getId()).getStatus())
+                .isEqualTo(RequestStatus.CONFIRMED);
+        assertThat(requestService.getWaitlistPosition(thirdId, third.getId()).getPosition()).isEqualTo(1);
+        assertThat(requestService.getWaitlistPosition(fourthId, fourth.getId()).getPosition()).isEqualTo(2);
+
+        requestService.cancel(secondId, second.getId());
+        waitlistPromoter.promote();
+
+        assertThat(requestService.getWaitlistPosition(thirdId, third.getId()).getStatus())
+                .isEqualTo(RequestStatus.CONFIRMED);
+        WaitlistPositionDto waiting = requestService.getWaitlistPosition(fourthId, fourth.getId());
+        assertThat(waiting.getStatus()).isEqualTo(RequestStatus.WAITLISTED);
+        assertThat(waiting.getPosition()).isEqualTo(1);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void limitIncreasePromotesWaitlisted() {
+        long eventId = createPublishedEvent(1, false).getId();
+        requestService.create(createUser(), eventId, false);
+        requestService.create(createUser(), eventId, true);
+        requestService.create(createUser(), eventId, true);
+
+        UpdateEventAdminRequest update = new UpdateEventAdminRequest();
+        update.setParticipantLimit(3);
+        eventService.update(eventId, update);
+        waitlistPromoter.promote();
+
+        assertThat(requestRepository.countByEventIdAndStatus(eventId, RequestStatus.WAITLISTED)).isZero();
+        assertThat(requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED)).isEqualTo(3);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isEqualTo(3);
+    }
+
+    @Test
+    void moderatedEventPromotesToPending() {
+        EventFullDto event = createPublishedEvent(1, true);
+        long eventId = event.getId();
+        long firstId = createUser();
+        long secondId = createUser();
+        ParticipationRequestDto first = requestService.create(firstId, eventId, false);
+        requestService.updateStatus(new RequestParamsUpdate(event.getInitiator().getId(), eventId,
+                new EventRequestStatusUpdateRequest(Set.of(first.getId()), RequestStatus.CONFIRMED)));
+        ParticipationRequestDto second = requestService.create(secondId, eventId, true);
+        assertThat(second.getStatus()).isEqualTo(RequestStatus.WAITLISTED);
+
+        requestService.cancel(firstId, first.getId());
+        waitlistPromoter.promote();
+
+        assertThat(requestService.getWaitlistPosition(secondId, second.getId()).getStatus())
+                .isEqualTo(RequestStatus.PENDING);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getConfirmedRequests()).isZero();
+    }
+
+    private long createUser() {
+        int n = SEQUENCE.incrementAndGet();
+        return userService.create(new NewUserRequest("user" + n + "@test.ru", "User " + n)).getId();
+    }
+
+    private EventFullDto createPublishedEvent(int participantLimit, boolean requestModeration) {
+        int n = SEQUENCE.incrementAndGet();
+        long initiatorId = createUser();
+        long categoryId = categoryService.createCategory(new NewCategoryDto("Category " + n)).getId();
+        NewEventDto newEvent = NewEventDto.builder()
+                .annotation("Annotation of the test event number " + n)
+                .category(categoryId)
+                .description("Description of the test event number " + n)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .location(new LocationDto(55.75f, 37.61f))
+                .participantLimit(participantLimit)
+                .requestModeration(requestModeration)
+                .title("Event " + n)
+                .build();
+        long eventId = eventService.create(initiatorId, newEvent).getId();
+
+        UpdateEventAdminRequest publish = new UpdateEventAdminRequest();
+        publish.setStateAction(EventAction.PUBLISH_EVENT);
+        return eventService.update(eventId, publish);
+    }
+}
@@ -1,11 +1,18 @@
 package ru.practicum.client;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
@@ -17,8 +24,17 @@ import ru.practicum.stat.ViewStatsDTO;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 @Slf4j
 @Component
@@ -27,52 +43,136 @@ public class StatClient {
     private final String startUrl;
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final ObjectReader STATS_READER = new ObjectMapper().readerFor(ViewStatsDTO.class);
 
     @Value("${client.app.name}")
     private String appName;
 
+    private final BlockingQueue<EndpointHitDTO> hits;
+    private final int batchSize;
+    private final ScheduledExecutorService sender;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Counter droppedHits;
+    private final Counter failedHits;
+    private final Counter sentHits;
+
     @Autowired
-    public StatClient(@Value("${client.url}") String startUrl) {
+    public StatClient(@Value("${client.url}") String startUrl,
+                      @Value("${client.hits.queue-capacity:10000}") int queueCapacity,
+                      @Value("${client.hits.batch-size:100}") int batchSize,
+                      @Value("${client.hits.flush-interval-ms:500}") long flushIntervalMs,
+                      MeterRegistry meterRegistry) {
         this.startUrl = startUrl;
         var factory = new HttpComponentsClientHttpRequestFactory();
         factory.setConnectTimeout(10000);
         factory.setConnectionRequestTimeout(10000);
         restTemplate = new RestTemplate(factory);
+
+        this.hits = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.droppedHits = meterRegistry.counter("stats.client.hits.dropped");
+        this.failedHits = meterRegistry.counter("stats.client.hits.failed");
+        this.sentHits = meterRegistry.counter("stats.client.hits.sent");
+        meterRegistry.gaugeCollectionSize("stats.client.hits.queued", Collections.emptyList(), hits);
+
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stat-client-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sender.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
     }
 
     public void saveStats(HttpServletRequest request) {
-        try {
-            String ip = request.getRemoteAddr();
-            String uri = request.getRequestURI();
-            EndpointHitDTO dto = EndpointHitDTO.builder()
-                    .app(appName)
-                    .ip(ip)
-                    .uri(uri)
-                    .timestamp(LocalDateTime.now())
-                    .build();
+        String ip = request.getRemoteAddr();
+        String uri = request.getRequestURI();
+        EndpointHitDTO dto = EndpointHitDTO.builder()
+                .app(appName)
+                .ip(ip)
+                .uri(uri)
+                .timestamp(LocalDateTime.now())
+                .build();
 
-            restTemplate.postForObject(startUrl + "/hit", dto, String.class);
+        if (!hits.offer(dto)) {
+            droppedHits.increment();
+            log.warn("Очередь статистики переполнена, просмотр {} отброшен", uri);
+            return;
+        }
+        if (hits.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::flush);
+            } catch (Exception e) {
+                flushScheduled.set(false);
+            }
+        }
+    }
 
+    public List<ViewStatsDTO> getStats(StatsParams params) {
+        try {
+            return fetchStats(params);
         } catch (Exception e) {
             log.warn(e.getMessage());
         }
+        return Collections.emptyList();
     }
 
-    public List<ViewStatsDTO> getStats(StatsParams params) {
+    public List<ViewStatsDTO> fetchStats(StatsParams params) {
+        ResponseEntity<List<ViewStatsDTO>> response = restTemplate.exchange(statsUri("/stats", params),
+                HttpMethod.GET, null, new ParameterizedTypeReference<List<ViewStatsDTO>>() {
+                });
+        return response.getBody() != null ? response.getBody() : Collections.emptyList();
+    }
+
+    public void streamStats(StatsParams params, Consumer<ViewStatsDTO> consumer) {
+        restTemplate.execute(statsUri("/stats/stream", params), HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON)),
+                response -> {
+                    try (MappingIterator<ViewStatsDTO> stats = STATS_READER.readValues(response.getBody())) {
+                        stats.forEachRemaining(consumer);
+                    }
+                    return null;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+        try {
+            if (!sender.awaitTermination(10, TimeUnit.SECONDS)) {
+                sender.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<EndpointHitDTO> batch = new ArrayList<>(batchSize);
+        while (hits.drainTo(batch, batchSize) > 0) {
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    private void send(List<EndpointHitDTO> batch) {
         try {
-            String uri = UriComponentsBuilder.fromPath("/stats")
-                    .queryParam("start", encodeDate(params.getStart()))
-                    .queryParam("end", encodeDate(params.getEnd()))
-                    .queryParam("uris", params.getUris())
-                    .queryParam("unique", params.getUnique()).toUriString();
-            ResponseEntity<List<ViewStatsDTO>> response = restTemplate.exchange(startUrl + uri,
-                    HttpMethod.GET, null, new ParameterizedTypeReference<List<ViewStatsDTO>>() {
-                    });
-            return response.getBody();
+            restTemplate.postForLocation(startUrl + "/hits", batch);
+            sentHits.increment(batch.size());
         } catch (Exception e) {
             log.warn(e.getMessage());
+            failedHits.increment(batch.size());
         }
-        return Collections.emptyList();
+    }
+
+    private String statsUri(String path, StatsParams params) {
+        return startUrl + UriComponentsBuilder.fromPath(path)
+                .queryParam("start", encodeDate(params.getStart()))
+                .queryParam("end", encodeDate(params.getEnd()))
+                .queryParam("uris", params.getUris())
+                .queryParam("unique", params.getUnique())
+                .queryParamIfPresent("exact", Optional.ofNullable(params.getExact())).toUriString();
     }
 
     private String encodeDate(LocalDateTime date) {
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,13 +18,16 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class EndpointHitDTO {
     @NotBlank(message = "Название приложения не может быть пустым")
+    @Size(max = 30, message = "Название приложения не может быть длиннее 30 символов")
     private String app;
 
     @NotBlank(message = "URI не может быть пустым")
+    @Size(max = 2000, message = "URI не может быть длиннее 2000 символов")
     private String uri;
 
     @NotBlank(message = "IP не может быть пустым")
-    @Pattern(regexp = "^\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}$", message = "Недействительный формат IP-адресса")
+    @Pattern(regexp = "^(\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|[0-9a-fA-F:]*:[0-9a-fA-F:.%]*)$",
+            message = "Недействительный формат IP-адресса")
     private String ip;
 
     @NotNull(message = "Отметка времени не может быть пустая")
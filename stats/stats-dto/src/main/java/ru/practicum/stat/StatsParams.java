@@ -17,4 +17,5 @@ public class StatsParams {
     private LocalDateTime end;
     private List<String> uris;
     private Boolean unique;
+    private Boolean exact;
 }
@@ -1,28 +1,40 @@
 package ru.practicum.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.exeption.WrongDateException;
+import ru.practicum.model.HyperLogLog;
 import ru.practicum.service.StatService;
 import ru.practicum.stat.EndpointHitDTO;
 import ru.practicum.stat.StatsParams;
 import ru.practicum.stat.ViewStatsDTO;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+@Validated
 @RestController
 @RequiredArgsConstructor
 public class StatController {
 
     private final StatService statService;
+    private final ObjectMapper objectMapper;
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String UNIQUE_ERROR_HEADER = "X-Unique-Standard-Error";
 
     @PostMapping("/hit")
     @ResponseStatus(HttpStatus.CREATED)
@@ -30,26 +42,68 @@ public class StatController {
         return statService.save(hitDto);
     }
 
+    @PostMapping("/hits")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void saveAllStats(@RequestBody List<@Valid EndpointHitDTO> hitDtos) {
+        statService.saveAll(hitDtos);
+    }
+
     @GetMapping("/stats")
-    public List<ViewStatsDTO> getStats(
+    public ResponseEntity<List<ViewStatsDTO>> getStats(
+            @RequestParam("start") String start,
+            @RequestParam("end") String end,
+            @RequestParam(value = "uris", defaultValue = "") List<String> uris,
+            @RequestParam(value = "unique", defaultValue = "false") Boolean unique,
+            @RequestParam(value = "exact", defaultValue = "false") Boolean exact) {
+        StatsParams statsParams = toStatsParams(start, end, uris, unique, exact);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (unique && !exact) {
+            response.header(UNIQUE_ERROR_HEADER, String.valueOf(HyperLogLog.STANDARD_ERROR));
+        }
+        return response.body(statService.getStats(statsParams));
+    }
+
+    @GetMapping(value = "/stats/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStats(
             @RequestParam("start") String start,
             @RequestParam("end") String end,
             @RequestParam(value = "uris", defaultValue = "") List<String> uris,
             @RequestParam(value = "unique", defaultValue = "false") Boolean unique) {
+        StatsParams statsParams = toStatsParams(start, end, uris, unique, true);
+
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ViewStatsDTO.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                statService.streamStats(statsParams, stat -> {
+                    try {
+                        writer.write(stat);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private StatsParams toStatsParams(String start, String end, List<String> uris, Boolean unique, Boolean exact) {
         String decodedStartDate = URLDecoder.decode(start, StandardCharsets.UTF_8);
         String decodedEndDate = URLDecoder.decode(end, StandardCharsets.UTF_8);
         LocalDateTime startDecode = LocalDateTime.parse(decodedStartDate, DATE_TIME_FORMATTER);
         LocalDateTime endDecode = LocalDateTime.parse(decodedEndDate, DATE_TIME_FORMATTER);
         validDate(startDecode, endDecode);
 
-        StatsParams statsParams = StatsParams.builder()
+        return StatsParams.builder()
                 .start(startDecode)
                 .end(endDecode)
                 .unique(unique)
                 .uris(uris)
+                .exact(exact)
                 .build();
-
-        return statService.getStats(statsParams);
     }
 
     private void validDate(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
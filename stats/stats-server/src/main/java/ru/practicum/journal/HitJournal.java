@@ -0,0 +1,92 @@
+package ru.practicum.journal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.stat.EndpointHitDTO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.ingest.mode", havingValue = "journal")
+public class HitJournal {
+
+    private final Path dir;
+    private final int segmentSize;
+    private final NavigableMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    private volatile JournalSegment active;
+
+    public HitJournal(@Value("${stats.journal.dir:journal}") String dir,
+                      @Value("${stats.journal.segment-size:16777216}") int segmentSize) throws IOException {
+        this.dir = Path.of(dir);
+        this.segmentSize = segmentSize;
+        Files.createDirectories(this.dir);
+        try (Stream<Path> files = Files.list(this.dir)) {
+            for (Path path : files.filter(JournalSegment::isSegment).toList()) {
+                JournalSegment segment = JournalSegment.recover(path);
+                segments.put(segment.getId(), segment);
+            }
+        }
+        log.info("Журнал просмотров {}: восстановлено сегментов {}", this.dir.toAbsolutePath(), segments.size());
+    }
+
+    public synchronized void append(List<EndpointHitDTO> hits) {
+        try {
+            for (EndpointHitDTO hit : hits) {
+                if (active == null || !active.append(hit)) {
+                    roll();
+                    active.append(hit);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public List<JournalSegment> segments() {
+        return List.copyOf(segments.values());
+    }
+
+    public void release(JournalSegment segment) throws IOException {
+        segments.remove(segment.getId());
+        segment.delete();
+    }
+
+    @Scheduled(fixedDelayString = "${stats.journal.fsync-interval-ms:200}")
+    public void force() {
+        JournalSegment segment = active;
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            active.seal();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.seal();
+        }
+        long id = System.currentTimeMillis();
+        if (!segments.isEmpty() && segments.lastKey() >= id) {
+            id = segments.lastKey() + 1;
+        }
+        active = JournalSegment.create(dir, id, segmentSize);
+        segments.put(id, active);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.repository.JournalCheckpointRepository;
+import ru.practicum.service.GeneralStatService;
+
+import java.io.IOException;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.ingest.mode", havingValue = "journal")
+public class JournalLoader {
+
+    private final HitJournal journal;
+    private final GeneralStatService statService;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String journalId;
+    private final int batchSize;
+
+    public JournalLoader(HitJournal journal,
+                         GeneralStatService statService,
+                         JournalCheckpointRepository checkpointRepository,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${stats.journal.id:default}") String journalId,
+                         @Value("${stats.journal.load-batch-size:5000}") int batchSize) {
+        this.journal = journal;
+        this.statService = statService;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.journalId = journalId;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${stats.journal.load-interval-ms:1000}")
+    public void load() {
+        for (JournalSegment segment : journal.segments()) {
+            boolean sealed = segment.isSealed();
+            int position = checkpointRepository.find(journalId, segment.getId());
+            List<JournalSegment.Record> records = segment.read(position, batchSize);
+            while (!records.isEmpty()) {
+                position = loadBatch(segment, records);
+                records = segment.read(position, batchSize);
+            }
+
+            if (sealed && position >= segment.getPosition()) {
+                release(segment);
+            }
+        }
+    }
+
+    private int loadBatch(JournalSegment segment, List<JournalSegment.Record> records) {
+        int end = records.getLast().end();
+        transactionTemplate.executeWithoutResult(status -> {
+            statService.saveAll(records.stream().map(JournalSegment.Record::hit).toList());
+            checkpointRepository.save(journalId, segment.getId(), end);
+        });
+        return end;
+    }
+
+    private void release(JournalSegment segment) {
+        try {
+            journal.release(segment);
+            checkpointRepository.delete(journalId, segment.getId());
+        } catch (IOException e) {
+            log.warn("Не удалось удалить сегмент журнала {}: {}", segment.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.journal;
+
+import lombok.Getter;
+import ru.practicum.stat.EndpointHitDTO;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class JournalSegment {
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    @Getter
+    private final long id;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    @Getter
+    private volatile int position;
+    @Getter
+    private volatile boolean sealed;
+    private volatile boolean dirty;
+
+    private JournalSegment(long id, Path path, MappedByteBuffer buffer, int position, boolean sealed) {
+        this.id = id;
+        this.path = path;
+        this.buffer = buffer;
+        this.position = position;
+        this.sealed = sealed;
+    }
+
+    public static JournalSegment create(Path dir, long id, int size) throws IOException {
+        Path path = dir.resolve(fileName(id));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new JournalSegment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), 0, false);
+        }
+    }
+
+    public static JournalSegment recover(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long id = Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length()));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            JournalSegment segment = new JournalSegment(id, path, buffer, 0, true);
+            segment.position = segment.scanEnd();
+            return segment;
+        }
+    }
+
+    public static boolean isSegment(Path path) {
+        return path.getFileName().toString().matches("segment-\\d{20}\\.log");
+    }
+
+    public boolean append(EndpointHitDTO hit) {
+        byte[] payload = encode(hit);
+        if (payload.length + HEADER_SIZE > buffer.capacity()) {
+            throw new IllegalArgumentException("Hit does not fit into a journal segment");
+        }
+        if (sealed || position + HEADER_SIZE + payload.length > buffer.capacity()) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer target = buffer.duplicate();
+        target.position(position);
+        target.putInt(payload.length);
+        target.putInt((int) crc.getValue());
+        target.put(payload);
+        dirty = true;
+        position = target.position();
+        return true;
+    }
+
+    public List<Record> read(int from, int maxRecords) {
+        List<Record> records = new ArrayList<>();
+        ByteBuffer source = buffer.duplicate();
+        int end = position;
+        int offset = from;
+        while (offset < end && records.size() < maxRecords) {
+            source.position(offset);
+            int length = source.getInt();
+            source.getInt();
+            byte[] payload = new byte[length];
+            source.get(payload);
+            offset = source.position();
+            records.add(new Record(decode(payload), offset));
+        }
+        return records;
+    }
+
+    public void force() {
+        if (dirty) {
+            dirty = false;
+            buffer.force();
+        }
+    }
+
+    public void seal() {
+        force();
+        sealed = true;
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private int scanEnd() {
+        ByteBuffer source = buffer.duplicate();
+        int offset = 0;
+        while (offset + HEADER_SIZE <= source.capacity()) {
+            source.position(offset);
+            int length = source.getInt();
+            int checksum = source.getInt();
+            if (length <= 0 || offset + HEADER_SIZE + length > source.capacity()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            source.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            offset = source.position();
+        }
+        return offset;
+    }
+
+    private static String fileName(long id) {
+        return "segment-%020d.log".formatted(id);
+    }
+
+    private static byte[] encode(EndpointHitDTO hit) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(hit.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(hit.getTimestamp().getNano());
+            out.writeUTF(hit.getApp());
+            out.writeUTF(hit.getUri());
+            out.writeUTF(hit.getIp());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static EndpointHitDTO decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            return EndpointHitDTO.builder()
+                    .timestamp(timestamp)
+                    .app(in.readUTF())
+                    .uri(in.readUTF())
+                    .ip(in.readUTF())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Record(EndpointHitDTO hit, int end) {
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.journal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.practicum.model.IpAddresses;
+import ru.practicum.service.GeneralStatService;
+import ru.practicum.service.StatService;
+import ru.practicum.stat.EndpointHitDTO;
+import ru.practicum.stat.StatsParams;
+import ru.practicum.stat.ViewStatsDTO;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.ingest.mode", havingValue = "journal")
+public class JournalStatService implements StatService {
+
+    private final HitJournal journal;
+    private final GeneralStatService statService;
+
+    @Override
+    public EndpointHitDTO save(EndpointHitDTO dto) {
+        saveAll(List.of(dto));
+        return dto;
+    }
+
+    @Override
+    public void saveAll(List<EndpointHitDTO> dtos) {
+        dtos.forEach(dto -> IpAddresses.parse(dto.getIp()));
+        journal.append(dtos);
+    }
+
+    @Override
+    public List<ViewStatsDTO> getStats(StatsParams params) {
+        return statService.getStats(params);
+    }
+
+    @Override
+    public void streamStats(StatsParams params, Consumer<ViewStatsDTO> consumer) {
+        statService.streamStats(params, consumer);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@Builder
+@Entity
+@Table(name = "endpoint")
+public class Endpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "endpoint_id")
+    private Integer id;
+    @Column(name = "app")
+    private String app;
+    @Column(name = "uri")
+    private String uri;
+}
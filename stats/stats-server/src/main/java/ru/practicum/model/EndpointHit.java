@@ -15,15 +15,20 @@ import java.time.LocalDateTime;
 @Table(name = "endpoint_hit")
 public class EndpointHit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "endpoint_hit_seq")
+    @SequenceGenerator(name = "endpoint_hit_seq", sequenceName = "endpoint_hit_seq", allocationSize = 50)
     @Column(name = "endpoint_hit_id")
     private Long id;
-    @Column(name = "app")
-    private String app;
-    @Column(name = "uri")
-    private String uri;
+    @Column(name = "endpoint_id")
+    private Integer endpointId;
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "endpoint_id", insertable = false, updatable = false)
+    private Endpoint endpoint;
     @Column(name = "ip")
-    private String ip;
+    private Integer ip;
+    @Column(name = "ip6")
+    private byte[] ip6;
     @Column(name = "timestamp")
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+}
@@ -6,11 +6,21 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import ru.practicum.stat.EndpointHitDTO;
 
-@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        imports = IpAddresses.class)
 public interface EndpointMapper {
 
     @Mapping(target = "id", ignore = true)
-    EndpointHit toEndpointHit(EndpointHitDTO dto);
+    @Mapping(target = "endpoint", ignore = true)
+    @Mapping(target = "endpointId", source = "endpoint.id")
+    @Mapping(target = "ip", expression = "java(IpAddresses.toIpv4(IpAddresses.parse(dto.getIp())))")
+    @Mapping(target = "ip6", expression = "java(IpAddresses.toIpv6(IpAddresses.parse(dto.getIp())))")
+    @Mapping(target = "timestamp", source = "dto.timestamp")
+    EndpointHit toEndpointHit(EndpointHitDTO dto, Endpoint endpoint);
 
-    EndpointHitDTO toEndpointHitDTO(EndpointHit endpointHit);
-}
\ No newline at end of file
+    @Mapping(target = "app", source = "endpoint.app")
+    @Mapping(target = "uri", source = "endpoint.uri")
+    @Mapping(target = "ip", expression = "java(IpAddresses.format(endpointHit.getIp(), endpointHit.getIp6()))")
+    @Mapping(target = "timestamp", source = "endpointHit.timestamp")
+    EndpointHitDTO toEndpointHitDTO(EndpointHit endpointHit, Endpoint endpoint);
+}
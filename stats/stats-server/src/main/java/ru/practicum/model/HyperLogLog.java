@@ -0,0 +1,85 @@
+package ru.practicum.model;
+
+import java.nio.charset.StandardCharsets;
+
+public class HyperLogLog {
+    public static final int PRECISION = 11;
+    public static final int REGISTERS = 1 << PRECISION;
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != REGISTERS) {
+            throw new IllegalArgumentException("Sketch must contain " + REGISTERS + " registers");
+        }
+        return new HyperLogLog(bytes.clone());
+    }
+
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    public void add(String value) {
+        add(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void add(byte[] value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION), Long.SIZE - PRECISION) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static long hash(byte[] value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value) {
+            hash ^= b;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.model;
+
+import jakarta.validation.ValidationException;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+
+public final class IpAddresses {
+
+    private IpAddresses() {
+    }
+
+    public static byte[] parse(String ip) {
+        if (ip.indexOf(':') < 0) {
+            return parseIpv4(ip);
+        }
+        try {
+            return InetAddress.getByName(ip).getAddress();
+        } catch (UnknownHostException e) {
+            throw new ValidationException("Недействительный формат IP-адресса");
+        }
+    }
+
+    public static Integer toIpv4(byte[] address) {
+        return address.length == 4 ? ByteBuffer.wrap(address).getInt() : null;
+    }
+
+    public static byte[] toIpv6(byte[] address) {
+        return address.length == 4 ? null : address;
+    }
+
+    public static byte[] toBytes(Integer ip, byte[] ip6) {
+        return ip != null ? ByteBuffer.allocate(4).putInt(ip).array() : ip6;
+    }
+
+    public static String format(Integer ip, byte[] ip6) {
+        try {
+            return InetAddress.getByAddress(toBytes(ip, ip6)).getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] parseIpv4(String ip) {
+        String[] octets = ip.split("\\.");
+        if (octets.length != 4) {
+            throw new ValidationException("Недействительный формат IP-адресса");
+        }
+        byte[] address = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            int octet;
+            try {
+                octet = Integer.parseInt(octets[i]);
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Недействительный формат IP-адресса");
+            }
+            if (octet < 0 || octet > 255) {
+                throw new ValidationException("Недействительный формат IP-адресса");
+            }
+            address[i] = (byte) octet;
+        }
+        return address;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public record RollupPlan(LocalDateTime start,
+                         LocalDateTime minuteFrom,
+                         LocalDateTime hourFrom,
+                         LocalDateTime hourTo,
+                         LocalDateTime minuteTo,
+                         LocalDateTime end) {
+
+    public static RollupPlan of(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime minuteFrom = ceil(start, ChronoUnit.MINUTES);
+        LocalDateTime minuteTo = end.truncatedTo(ChronoUnit.MINUTES);
+        if (!minuteFrom.isBefore(minuteTo)) {
+            return new RollupPlan(start, end, end, end, end, end);
+        }
+
+        LocalDateTime hourFrom = ceil(start, ChronoUnit.HOURS);
+        LocalDateTime hourTo = end.truncatedTo(ChronoUnit.HOURS);
+        if (!hourFrom.isBefore(hourTo)) {
+            return new RollupPlan(start, minuteFrom, minuteTo, minuteTo, minuteTo, end);
+        }
+        return new RollupPlan(start, minuteFrom, hourFrom, hourTo, minuteTo, end);
+    }
+
+    private static LocalDateTime ceil(LocalDateTime dateTime, ChronoUnit unit) {
+        LocalDateTime truncated = dateTime.truncatedTo(unit);
+        return truncated.equals(dateTime) ? truncated : truncated.plus(1, unit);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.model.Endpoint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface EndpointRepository extends JpaRepository<Endpoint, Integer> {
+
+    Optional<Endpoint> findByAppAndUri(String app, String uri);
+
+    List<Endpoint> findAllByUriIn(Collection<String> uris);
+}
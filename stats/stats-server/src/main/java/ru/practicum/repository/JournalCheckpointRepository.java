@@ -0,0 +1,37 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class JournalCheckpointRepository {
+
+    private static final String FIND_SQL = "SELECT position FROM journal_checkpoint " +
+            "WHERE journal_id = ? AND segment_id = ?";
+
+    private static final String UPDATE_SQL = "UPDATE journal_checkpoint SET position = ? " +
+            "WHERE journal_id = ? AND segment_id = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO journal_checkpoint (journal_id, segment_id, position) " +
+            "VALUES (?, ?, ?)";
+
+    private static final String DELETE_SQL = "DELETE FROM journal_checkpoint WHERE journal_id = ? AND segment_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int find(String journalId, long segmentId) {
+        return jdbcTemplate.query(FIND_SQL, rs -> rs.next() ? rs.getInt("position") : 0, journalId, segmentId);
+    }
+
+    public void save(String journalId, long segmentId, int position) {
+        if (jdbcTemplate.update(UPDATE_SQL, position, journalId, segmentId) == 0) {
+            jdbcTemplate.update(INSERT_SQL, journalId, segmentId, position);
+        }
+    }
+
+    public void delete(String journalId, long segmentId) {
+        jdbcTemplate.update(DELETE_SQL, journalId, segmentId);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class PartitionRepository {
+
+    private static final String PARTITION_PREFIX = "endpoint_hit_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('endpoint_hit_partitions'))";
+
+    private static final String EXISTS_SQL = "SELECT to_regclass(?) IS NOT NULL";
+
+    private static final String FIND_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'endpoint_hit'::regclass";
+
+    private static final String PURGE_DEFAULT_SQL = "DELETE FROM endpoint_hit_default WHERE timestamp < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void lock() {
+        jdbcTemplate.query(LOCK_SQL, rs -> null);
+    }
+
+    public boolean exists(LocalDate day) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, partitionName(day)));
+    }
+
+    public void create(LocalDate day) {
+        String name = partitionName(day);
+        String from = day.atStartOfDay().toString();
+        String to = day.plusDays(1).atStartOfDay().toString();
+
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE endpoint_hit INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM endpoint_hit_default " +
+                "WHERE timestamp >= '" + from + "' AND timestamp < '" + to + "' RETURNING *) " +
+                "INSERT INTO " + name + " SELECT * FROM moved");
+        jdbcTemplate.execute("ALTER TABLE endpoint_hit ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    public List<LocalDate> findDays() {
+        return jdbcTemplate.queryForList(FIND_PARTITIONS_SQL, String.class).stream()
+                .filter(name -> name.matches(PARTITION_PREFIX + "\\d{8}"))
+                .map(name -> LocalDate.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .toList();
+    }
+
+    public void detach(LocalDate day) {
+        jdbcTemplate.execute("ALTER TABLE endpoint_hit DETACH PARTITION " + partitionName(day));
+    }
+
+    public void drop(LocalDate day) {
+        jdbcTemplate.execute("DROP TABLE " + partitionName(day));
+    }
+
+    public int purgeDefault(LocalDate before) {
+        return jdbcTemplate.update(PURGE_DEFAULT_SQL, before.atStartOfDay());
+    }
+
+    private String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+}
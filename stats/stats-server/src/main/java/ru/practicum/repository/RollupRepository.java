@@ -0,0 +1,126 @@
+package ru.practicum.repository;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.EndpointHit;
+import ru.practicum.model.RollupBucket;
+import ru.practicum.model.RollupPlan;
+import ru.practicum.stat.ViewStatsDTO;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+@Repository
+public class RollupRepository {
+
+    private static final String INCREMENT_SQL = "INSERT INTO %1$s (endpoint_id, bucket, hits) " +
+            "VALUES (:endpointId, :bucket, :hits) " +
+            "ON CONFLICT (endpoint_id, bucket) DO UPDATE SET hits = %1$s.hits + EXCLUDED.hits";
+
+    private static final String MERGE_SQL = "MERGE INTO %1$s t " +
+            "USING (VALUES (CAST(:endpointId AS INTEGER), CAST(:bucket AS TIMESTAMP), CAST(:hits AS BIGINT))) " +
+            "AS s (endpoint_id, bucket, hits) " +
+            "ON t.endpoint_id = s.endpoint_id AND t.bucket = s.bucket " +
+            "WHEN MATCHED THEN UPDATE SET hits = t.hits + s.hits " +
+            "WHEN NOT MATCHED THEN INSERT (endpoint_id, bucket, hits) VALUES (s.endpoint_id, s.bucket, s.hits)";
+
+    private static final String DELETE_BEFORE_SQL = "DELETE FROM %s WHERE bucket < :bucket";
+
+    private static final String COUNT_SQL = "SELECT en.app, en.uri, s.hits FROM (" +
+            "SELECT endpoint_id, SUM(hits) AS hits FROM (" +
+            "SELECT endpoint_id, hits FROM endpoint_hit_hour " +
+            "WHERE bucket >= :hourFrom AND bucket < :hourTo%1$s " +
+            "UNION ALL " +
+            "SELECT endpoint_id, hits FROM endpoint_hit_minute " +
+            "WHERE ((bucket >= :minuteFrom AND bucket < :hourFrom) OR (bucket >= :hourTo AND bucket < :minuteTo))%1$s " +
+            "UNION ALL " +
+            "SELECT endpoint_id, COUNT(*) AS hits FROM endpoint_hit " +
+            "WHERE ((timestamp >= :start AND timestamp < :minuteFrom) OR (timestamp >= :minuteTo AND timestamp <= :end))%1$s " +
+            "GROUP BY endpoint_id" +
+            ") u " +
+            "GROUP BY endpoint_id" +
+            ") s " +
+            "JOIN endpoint en ON en.endpoint_id = s.endpoint_id%2$s " +
+            "ORDER BY s.hits DESC";
+
+    private static final RowMapper<ViewStatsDTO> VIEW_STATS_MAPPER = (rs, rowNum) ->
+            new ViewStatsDTO(rs.getString("app"), rs.getString("uri"), rs.getLong("hits"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String incrementSql;
+
+    public RollupRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+        String database = JdbcUtils.commonDatabaseName(
+                JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        this.incrementSql = "PostgreSQL".equals(database) ? INCREMENT_SQL : MERGE_SQL;
+    }
+
+    public void increment(List<EndpointHit> hits) {
+        for (RollupBucket bucket : RollupBucket.values()) {
+            Map<RollupKey, Long> increments = new TreeMap<>(Comparator.comparing(RollupKey::endpointId)
+                    .thenComparing(RollupKey::bucket));
+            for (EndpointHit hit : hits) {
+                RollupKey key = new RollupKey(hit.getEndpointId(), hit.getTimestamp().truncatedTo(bucket.getUnit()));
+                increments.merge(key, 1L, Long::sum);
+            }
+
+            SqlParameterSource[] batch = increments.entrySet().stream()
+                    .map(entry -> new MapSqlParameterSource()
+                            .addValue("endpointId", entry.getKey().endpointId())
+                            .addValue("bucket", entry.getKey().bucket())
+                            .addValue("hits", entry.getValue()))
+                    .toArray(SqlParameterSource[]::new);
+            jdbcTemplate.batchUpdate(incrementSql.formatted(bucket.getTable()), batch);
+        }
+    }
+
+    public int deleteBefore(LocalDateTime bucket) {
+        int deleted = 0;
+        for (RollupBucket rollup : RollupBucket.values()) {
+            deleted += jdbcTemplate.update(DELETE_BEFORE_SQL.formatted(rollup.getTable()),
+                    new MapSqlParameterSource("bucket", bucket));
+        }
+        return deleted;
+    }
+
+    public List<ViewStatsDTO> countHits(RollupPlan plan, List<Integer> endpointIds) {
+        return jdbcTemplate.query(countSql(endpointIds), countParams(plan, endpointIds), VIEW_STATS_MAPPER);
+    }
+
+    public Stream<ViewStatsDTO> streamHits(RollupPlan plan, List<Integer> endpointIds) {
+        return jdbcTemplate.queryForStream(countSql(endpointIds), countParams(plan, endpointIds), VIEW_STATS_MAPPER);
+    }
+
+    private String countSql(List<Integer> endpointIds) {
+        boolean endpointsPresent = endpointIds != null && !endpointIds.isEmpty();
+        return endpointsPresent
+                ? COUNT_SQL.formatted(" AND endpoint_id IN (:endpointIds)", " AND en.endpoint_id IN (:endpointIds)")
+                : COUNT_SQL.formatted("", "");
+    }
+
+    private MapSqlParameterSource countParams(RollupPlan plan, List<Integer> endpointIds) {
+        return new MapSqlParameterSource()
+                .addValue("start", plan.start())
+                .addValue("minuteFrom", plan.minuteFrom())
+                .addValue("hourFrom", plan.hourFrom())
+                .addValue("hourTo", plan.hourTo())
+                .addValue("minuteTo", plan.minuteTo())
+                .addValue("end", plan.end())
+                .addValue("endpointIds", endpointIds);
+    }
+
+    private record RollupKey(Integer endpointId, LocalDateTime bucket) {
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class SketchRepository {
+
+    private static final String FIND_SKETCHES_SQL = "SELECT endpoint_id, bucket, ip_sketch, " +
+            "(ip_sketch IS NOT NULL AND sketch_hits = hits) AS fresh " +
+            "FROM endpoint_hit_hour " +
+            "WHERE bucket >= :from AND bucket < :to%s";
+
+    private static final String FIND_DISTINCT_IPS_SQL = "SELECT DISTINCT endpoint_id, ip, ip6 FROM endpoint_hit " +
+            "WHERE timestamp >= :from AND timestamp %s :to%s";
+
+    private static final String FIND_STALE_BUCKETS_SQL = "SELECT DISTINCT bucket FROM endpoint_hit_hour " +
+            "WHERE (ip_sketch IS NULL OR sketch_hits <> hits) AND bucket >= :after AND bucket < :before " +
+            "ORDER BY bucket " +
+            "LIMIT :limit";
+
+    private static final String FIND_IP_HITS_SQL = "SELECT endpoint_id, ip, ip6, COUNT(*) AS hits FROM endpoint_hit " +
+            "WHERE timestamp >= :from AND timestamp < :to " +
+            "GROUP BY endpoint_id, ip, ip6";
+
+    private static final String UPDATE_SKETCH_SQL = "UPDATE endpoint_hit_hour " +
+            "SET ip_sketch = :sketch, sketch_hits = :hits " +
+            "WHERE endpoint_id = :endpointId AND bucket = :bucket";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<HourSketch> findSketches(LocalDateTime from, LocalDateTime to, List<Integer> endpointIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("endpointIds", endpointIds);
+
+        return jdbcTemplate.query(FIND_SKETCHES_SQL.formatted(endpointsFilter(endpointIds)), params,
+                (rs, rowNum) -> new HourSketch(rs.getInt("endpoint_id"), rs.getTimestamp("bucket").toLocalDateTime(),
+                        rs.getBytes("ip_sketch"), rs.getBoolean("fresh")));
+    }
+
+    public List<UniqueIp> findDistinctIps(LocalDateTime from, LocalDateTime to, boolean inclusive,
+                                          List<Integer> endpointIds) {
+        if (from.isAfter(to) || (!inclusive && from.equals(to))) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("endpointIds", endpointIds);
+
+        return jdbcTemplate.query(FIND_DISTINCT_IPS_SQL.formatted(inclusive ? "<=" : "<", endpointsFilter(endpointIds)),
+                params, (rs, rowNum) -> new UniqueIp(rs.getInt("endpoint_id"), ipv4(rs), rs.getBytes("ip6")));
+    }
+
+    public List<LocalDateTime> findStaleBuckets(LocalDateTime after, LocalDateTime before, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("after", after)
+                .addValue("before", before)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(FIND_STALE_BUCKETS_SQL, params,
+                (rs, rowNum) -> rs.getTimestamp("bucket").toLocalDateTime());
+    }
+
+    public List<IpHits> findIpHits(LocalDateTime from, LocalDateTime to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+
+        return jdbcTemplate.query(FIND_IP_HITS_SQL, params,
+                (rs, rowNum) -> new IpHits(rs.getInt("endpoint_id"), ipv4(rs), rs.getBytes("ip6"), rs.getLong("hits")));
+    }
+
+    public void updateSketches(LocalDateTime bucket, List<KeySketch> sketches) {
+        SqlParameterSource[] batch = sketches.stream()
+                .map(sketch -> new MapSqlParameterSource()
+                        .addValue("endpointId", sketch.endpointId())
+                        .addValue("bucket", bucket)
+                        .addValue("sketch", sketch.sketch())
+                        .addValue("hits", sketch.hits()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPDATE_SKETCH_SQL, batch);
+    }
+
+    private String endpointsFilter(List<Integer> endpointIds) {
+        return endpointIds != null && !endpointIds.isEmpty() ? " AND endpoint_id IN (:endpointIds)" : "";
+    }
+
+    private Integer ipv4(ResultSet rs) throws SQLException {
+        int ip = rs.getInt("ip");
+        return rs.wasNull() ? null : ip;
+    }
+
+    public record HourSketch(Integer endpointId, LocalDateTime bucket, byte[] sketch, boolean fresh) {
+    }
+
+    public record UniqueIp(Integer endpointId, Integer ip, byte[] ip6) {
+    }
+
+    public record IpHits(Integer endpointId, Integer ip, byte[] ip6, long hits) {
+    }
+
+    public record KeySketch(Integer endpointId, byte[] sketch, long hits) {
+    }
+}
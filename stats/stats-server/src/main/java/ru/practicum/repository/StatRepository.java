@@ -1,43 +1,49 @@
 package ru.practicum.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.model.EndpointHit;
 import ru.practicum.stat.ViewStatsDTO;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface StatRepository extends JpaRepository<EndpointHit, Long> {
+public interface StatRepository extends JpaRepository<EndpointHit, Long>, StatRepositoryCustom {
 
-    @Query("SELECT new ru.practicum.stat.ViewStatsDTO(e.app, e.uri, COUNT(DISTINCT e.ip)) " +
-            "FROM EndpointHit e " +
+    @Query("SELECT new ru.practicum.stat.ViewStatsDTO(en.app, en.uri, COUNT(DISTINCT e.ip) + COUNT(DISTINCT e.ip6)) " +
+            "FROM EndpointHit e JOIN e.endpoint en " +
             "WHERE e.timestamp between :start AND :end " +
-            "GROUP BY e.app, e.uri " +
-            "ORDER By COUNT(DISTINCT e.ip) DESC")
+            "GROUP BY en.app, en.uri " +
+            "ORDER By COUNT(DISTINCT e.ip) + COUNT(DISTINCT e.ip6) DESC")
     List<ViewStatsDTO> findAllByUniqueIp(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    @Query("SELECT new ru.practicum.stat.ViewStatsDTO(e.app, e.uri, COUNT(e.ip)) " +
-            "FROM EndpointHit e " +
-            "WHERE e.timestamp between :start AND :end " +
-            "GROUP BY e.app, e.uri " +
-            "ORDER By COUNT(e.ip) DESC")
-    List<ViewStatsDTO> findAllByNonUniqueIp(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-    @Query("SELECT new ru.practicum.stat.ViewStatsDTO(e.app, e.uri, COUNT(DISTINCT e.ip)) " +
-            "FROM EndpointHit e " +
-            "WHERE e.timestamp between :start AND :end AND e.uri IN :uris " +
-            "GROUP BY e.app, e.uri " +
-            "ORDER By COUNT(DISTINCT e.ip) DESC")
+    @Query("SELECT new ru.practicum.stat.ViewStatsDTO(en.app, en.uri, COUNT(DISTINCT e.ip) + COUNT(DISTINCT e.ip6)) " +
+            "FROM EndpointHit e JOIN e.endpoint en " +
+            "WHERE e.timestamp between :start AND :end AND e.endpointId IN :endpointIds " +
+            "GROUP BY en.app, en.uri " +
+            "ORDER By COUNT(DISTINCT e.ip) + COUNT(DISTINCT e.ip6) DESC")
     List<ViewStatsDTO> findByUniqueIp(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
-                                      @Param("uris") List<String> uris);
+                                      @Param("endpointIds") List<Integer> endpointIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new ru.practicum.stat.ViewStatsDTO(en.app, en.uri, COUNT(DISTINCT e.ip) + COUNT(DISTINCT e.ip6)) " +
+            "FROM EndpointHit e JOIN e.endpoint en " +
+            "WHERE e.timestamp between :start AND :end " +
+            "GROUP BY en.app, en.uri " +
+            "ORDER By COUNT(DISTINCT e.ip) + COUNT(DISTINCT e.ip6) DESC")
+    Stream<ViewStatsDTO> streamAllByUniqueIp(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    @Query("SELECT new ru.practicum.stat.ViewStatsDTO(e.app, e.uri, COUNT(e.ip)) " +
-            "FROM EndpointHit e " +
-            "WHERE e.timestamp between :start AND :end AND e.uri IN :uris " +
-            "GROUP BY e.app, e.uri " +
-            "ORDER By COUNT(e.ip) DESC")
-    List<ViewStatsDTO> findByNonUniqueIp(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
-                                         @Param("uris") List<String> uris);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new ru.practicum.stat.ViewStatsDTO(en.app, en.uri, COUNT(DISTINCT e.ip) + COUNT(DISTINCT e.ip6)) " +
+            "FROM EndpointHit e JOIN e.endpoint en " +
+            "WHERE e.timestamp between :start AND :end AND e.endpointId IN :endpointIds " +
+            "GROUP BY en.app, en.uri " +
+            "ORDER By COUNT(DISTINCT e.ip) + COUNT(DISTINCT e.ip6) DESC")
+    Stream<ViewStatsDTO> streamByUniqueIp(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                          @Param("endpointIds") List<Integer> endpointIds);
 }
@@ -0,0 +1,30 @@
+package ru.practicum.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import ru.practicum.model.EndpointHit;
+
+import java.util.List;
+
+public class StatRepositoryCustomImpl implements StatRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<EndpointHit> hits) {
+        for (int i = 0; i < hits.size(); i++) {
+            entityManager.persist(hits.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.model.Endpoint;
+import ru.practicum.repository.EndpointRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class EndpointRegistry {
+
+    private final EndpointRepository endpointRepository;
+    private final TransactionTemplate requiresNew;
+    private final Map<EndpointKey, Endpoint> byKey = new ConcurrentHashMap<>();
+    private final Map<Integer, Endpoint> byId = new ConcurrentHashMap<>();
+
+    public EndpointRegistry(EndpointRepository endpointRepository, PlatformTransactionManager transactionManager) {
+        this.endpointRepository = endpointRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Endpoint resolve(String app, String uri) {
+        Endpoint endpoint = byKey.get(new EndpointKey(app, uri));
+        if (endpoint != null) {
+            return endpoint;
+        }
+        return remember(endpointRepository.findByAppAndUri(app, uri)
+                .orElseGet(() -> create(app, uri)));
+    }
+
+    public Endpoint get(Integer id) {
+        Endpoint endpoint = byId.get(id);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        return remember(endpointRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Unknown endpoint id " + id)));
+    }
+
+    public List<Integer> findIdsByUris(Collection<String> uris) {
+        return endpointRepository.findAllByUriIn(uris).stream()
+                .map(this::remember)
+                .map(Endpoint::getId)
+                .toList();
+    }
+
+    private Endpoint create(String app, String uri) {
+        try {
+            return requiresNew.execute(status -> endpointRepository.saveAndFlush(Endpoint.builder()
+                    .app(app)
+                    .uri(uri)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Эндпоинт {} {} уже создан параллельно", app, uri);
+            return endpointRepository.findByAppAndUri(app, uri).orElseThrow(() -> e);
+        }
+    }
+
+    private Endpoint remember(Endpoint endpoint) {
+        byKey.putIfAbsent(new EndpointKey(endpoint.getApp(), endpoint.getUri()), endpoint);
+        byId.putIfAbsent(endpoint.getId(), endpoint);
+        return endpoint;
+    }
+
+    private record EndpointKey(String app, String uri) {
+    }
+}
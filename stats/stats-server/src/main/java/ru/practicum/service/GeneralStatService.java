@@ -3,47 +3,95 @@ package ru.practicum.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.model.Endpoint;
 import ru.practicum.model.EndpointHit;
 import ru.practicum.model.EndpointMapper;
+import ru.practicum.model.RollupPlan;
+import ru.practicum.repository.RollupRepository;
 import ru.practicum.repository.StatRepository;
 import ru.practicum.stat.EndpointHitDTO;
 import ru.practicum.stat.StatsParams;
 import ru.practicum.stat.ViewStatsDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class GeneralStatService implements StatService {
 
     private final StatRepository statRepository;
+    private final RollupRepository rollupRepository;
+    private final SketchService sketchService;
     private final EndpointMapper endpointMapper;
+    private final EndpointRegistry endpointRegistry;
 
     @Override
     @Transactional
     public EndpointHitDTO save(EndpointHitDTO dto) {
-        EndpointHit endpointHit = statRepository.save(endpointMapper.toEndpointHit(dto));
+        Endpoint endpoint = endpointRegistry.resolve(dto.getApp(), dto.getUri());
+        EndpointHit endpointHit = statRepository.save(endpointMapper.toEndpointHit(dto, endpoint));
+        rollupRepository.increment(List.of(endpointHit));
 
-        return endpointMapper.toEndpointHitDTO(endpointHit);
+        return endpointMapper.toEndpointHitDTO(endpointHit, endpoint);
     }
 
     @Override
+    @Transactional
+    public void saveAll(List<EndpointHitDTO> dtos) {
+        List<EndpointHit> hits = dtos.stream()
+                .map(dto -> endpointMapper.toEndpointHit(dto, endpointRegistry.resolve(dto.getApp(), dto.getUri())))
+                .toList();
+        statRepository.insertAll(hits);
+        rollupRepository.increment(hits);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ViewStatsDTO> getStats(StatsParams params) {
         boolean unique = params.getUnique();
         boolean urisPresent = !params.getUris().isEmpty();
+        List<Integer> endpointIds = urisPresent ? endpointRegistry.findIdsByUris(params.getUris()) : List.of();
+        if (urisPresent && endpointIds.isEmpty()) {
+            return List.of();
+        }
+
+        if (unique && !Boolean.TRUE.equals(params.getExact())) {
+            return sketchService.countUnique(params.getStart(), params.getEnd(), endpointIds);
+        }
 
         if (unique && urisPresent) {
-            return statRepository.findByUniqueIp(params.getStart(), params.getEnd(), params.getUris());
+            return statRepository.findByUniqueIp(params.getStart(), params.getEnd(), endpointIds);
         }
 
         if (unique) {
             return statRepository.findAllByUniqueIp(params.getStart(), params.getEnd());
         }
 
-        if (urisPresent) {
-            return statRepository.findByNonUniqueIp(params.getStart(), params.getEnd(), params.getUris());
+        return rollupRepository.countHits(RollupPlan.of(params.getStart(), params.getEnd()), endpointIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStats(StatsParams params, Consumer<ViewStatsDTO> consumer) {
+        boolean urisPresent = !params.getUris().isEmpty();
+        List<Integer> endpointIds = urisPresent ? endpointRegistry.findIdsByUris(params.getUris()) : List.of();
+        if (urisPresent && endpointIds.isEmpty()) {
+            return;
         }
 
-        return statRepository.findAllByNonUniqueIp(params.getStart(), params.getEnd());
+        Stream<ViewStatsDTO> stats;
+        if (params.getUnique() && urisPresent) {
+            stats = statRepository.streamByUniqueIp(params.getStart(), params.getEnd(), endpointIds);
+        } else if (params.getUnique()) {
+            stats = statRepository.streamAllByUniqueIp(params.getStart(), params.getEnd());
+        } else {
+            stats = rollupRepository.streamHits(RollupPlan.of(params.getStart(), params.getEnd()), endpointIds);
+        }
+
+        try (stats) {
+            stats.forEach(consumer);
+        }
     }
 }
@@ -0,0 +1,74 @@
+package ru.practicum.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.repository.PartitionRepository;
+import ru.practicum.repository.RollupRepository;
+
+import java.time.LocalDate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.partition.enabled", havingValue = "true")
+public class PartitionService {
+
+    private final PartitionRepository partitionRepository;
+    private final RollupRepository rollupRepository;
+
+    @Value("${stats.partition.days-ahead:7}")
+    private int daysAhead;
+
+    @Value("${stats.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${stats.retention.drop:true}")
+    private boolean dropExpired;
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${stats.partition.cron:0 0 * * * *}")
+    public void maintain() {
+        partitionRepository.lock();
+        LocalDate today = LocalDate.now();
+
+        for (LocalDate day = today; !day.isAfter(today.plusDays(daysAhead)); day = day.plusDays(1)) {
+            if (!partitionRepository.exists(day)) {
+                partitionRepository.create(day);
+                log.info("Создана партиция статистики за {}", day);
+            }
+        }
+
+        LocalDate expiredBefore = today.minusDays(retentionDays);
+        for (LocalDate day : partitionRepository.findDays()) {
+            if (day.isBefore(expiredBefore)) {
+                if (dropExpired) {
+                    partitionRepository.drop(day);
+                    log.info("Удалена партиция статистики за {}", day);
+                } else {
+                    partitionRepository.detach(day);
+                    log.info("Отсоединена партиция статистики за {}", day);
+                }
+            }
+        }
+
+        if (dropExpired) {
+            int purgedHits = partitionRepository.purgeDefault(expiredBefore);
+            if (purgedHits > 0) {
+                log.info("Удалено устаревших хитов из партиции по умолчанию: {}", purgedHits);
+            }
+        }
+
+        int purged = rollupRepository.deleteBefore(expiredBefore.atStartOfDay());
+        if (purged > 0) {
+            log.info("Удалено устаревших агрегатов статистики: {}", purged);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.model.Endpoint;
+import ru.practicum.model.HyperLogLog;
+import ru.practicum.model.IpAddresses;
+import ru.practicum.model.RollupPlan;
+import ru.practicum.repository.SketchRepository;
+import ru.practicum.repository.SketchRepository.HourSketch;
+import ru.practicum.repository.SketchRepository.IpHits;
+import ru.practicum.repository.SketchRepository.KeySketch;
+import ru.practicum.repository.SketchRepository.UniqueIp;
+import ru.practicum.stat.ViewStatsDTO;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SketchService {
+
+    private final SketchRepository sketchRepository;
+    private final EndpointRegistry endpointRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stats.sketch.compact-batch:24}")
+    private int compactBatch;
+
+    @Value("${stats.retention.days:90}")
+    private int retentionDays;
+
+    public List<ViewStatsDTO> countUnique(LocalDateTime start, LocalDateTime end, List<Integer> endpointIds) {
+        RollupPlan plan = RollupPlan.of(start, end);
+        Map<Integer, UniqueCounter> counters = new HashMap<>();
+        Map<LocalDateTime, Set<Integer>> staleKeys = new TreeMap<>();
+
+        for (HourSketch hourSketch : sketchRepository.findSketches(plan.hourFrom(), plan.hourTo(), endpointIds)) {
+            Integer key = hourSketch.endpointId();
+            if (hourSketch.fresh()) {
+                counters.computeIfAbsent(key, k -> new UniqueCounter())
+                        .merge(HyperLogLog.fromBytes(hourSketch.sketch()));
+            } else {
+                staleKeys.computeIfAbsent(hourSketch.bucket(), bucket -> new HashSet<>()).add(key);
+            }
+        }
+
+        addIps(counters, sketchRepository.findDistinctIps(plan.start(), plan.hourFrom(), false, endpointIds), null);
+        addIps(counters, sketchRepository.findDistinctIps(plan.hourTo(), plan.end(), true, endpointIds), null);
+        staleKeys.forEach((bucket, keys) -> addIps(counters,
+                sketchRepository.findDistinctIps(bucket, bucket.plusHours(1), false, endpointIds), keys));
+
+        return counters.entrySet().stream()
+                .map(entry -> {
+                    Endpoint endpoint = endpointRegistry.get(entry.getKey());
+                    return new ViewStatsDTO(endpoint.getApp(), endpoint.getUri(), entry.getValue().count());
+                })
+                .sorted(Comparator.comparingLong(ViewStatsDTO::getHits).reversed())
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${stats.sketch.compact-interval-ms:60000}")
+    public void compact() {
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime after = before.toLocalDate().minusDays(retentionDays).atStartOfDay();
+        List<LocalDateTime> buckets = sketchRepository.findStaleBuckets(after, before, compactBatch);
+        for (LocalDateTime bucket : buckets) {
+            transactionTemplate.executeWithoutResult(status -> rebuild(bucket));
+        }
+        if (!buckets.isEmpty()) {
+            log.info("Пересобраны HLL-скетчи за {} ч.", buckets.size());
+        }
+    }
+
+    private void rebuild(LocalDateTime bucket) {
+        Map<Integer, HyperLogLog> sketches = new HashMap<>();
+        Map<Integer, Long> hits = new HashMap<>();
+        for (IpHits ipHits : sketchRepository.findIpHits(bucket, bucket.plusHours(1))) {
+            sketches.computeIfAbsent(ipHits.endpointId(), k -> new HyperLogLog())
+                    .add(IpAddresses.toBytes(ipHits.ip(), ipHits.ip6()));
+            hits.merge(ipHits.endpointId(), ipHits.hits(), Long::sum);
+        }
+
+        List<KeySketch> updates = sketches.entrySet().stream()
+                .map(entry -> new KeySketch(entry.getKey(), entry.getValue().toBytes(), hits.get(entry.getKey())))
+                .toList();
+        sketchRepository.updateSketches(bucket, updates);
+    }
+
+    private void addIps(Map<Integer, UniqueCounter> counters, List<UniqueIp> ips, Set<Integer> onlyKeys) {
+        for (UniqueIp uniqueIp : ips) {
+            Integer key = uniqueIp.endpointId();
+            if (onlyKeys == null || onlyKeys.contains(key)) {
+                counters.computeIfAbsent(key, k -> new UniqueCounter())
+                        .add(IpAddresses.toBytes(uniqueIp.ip(), uniqueIp.ip6()));
+            }
+        }
+    }
+
+    private static class UniqueCounter {
+        private final Set<ByteBuffer> ips = new HashSet<>();
+        private HyperLogLog sketch;
+
+        void add(byte[] ip) {
+            ips.add(ByteBuffer.wrap(ip));
+        }
+
+        void merge(HyperLogLog other) {
+            if (sketch == null) {
+                sketch = other;
+            } else {
+                sketch.merge(other);
+            }
+        }
+
+        long count() {
+            if (sketch == null) {
+                return ips.size();
+            }
+            ips.forEach(ip -> sketch.add(ip.array()));
+            return sketch.estimate();
+        }
+    }
+}
@@ -5,9 +5,14 @@ import ru.practicum.stat.StatsParams;
 import ru.practicum.stat.ViewStatsDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StatService {
     EndpointHitDTO save(EndpointHitDTO dto);
 
+    void saveAll(List<EndpointHitDTO> dtos);
+
     List<ViewStatsDTO> getStats(StatsParams params);
+
+    void streamStats(StatsParams params, Consumer<ViewStatsDTO> consumer);
 }
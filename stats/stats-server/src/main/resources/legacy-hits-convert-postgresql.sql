@@ -0,0 +1,35 @@
+DO '
+BEGIN
+    IF to_regclass(''endpoint_hit_legacy'') IS NULL THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO endpoint (app, uri)
+    SELECT DISTINCT app, uri FROM endpoint_hit_legacy
+    ON CONFLICT (app, uri) DO NOTHING;
+
+    CREATE TEMPORARY TABLE legacy_hit ON COMMIT DROP AS
+    SELECT e.endpoint_id,
+           CAST(CASE WHEN o.address >= 2147483648 THEN o.address - 4294967296 ELSE o.address END AS INTEGER) AS ip,
+           o.timestamp
+    FROM (SELECT l.app, l.uri, l.timestamp,
+                 split_part(l.ip, ''.'', 1)::BIGINT * 16777216 + split_part(l.ip, ''.'', 2)::BIGINT * 65536
+                     + split_part(l.ip, ''.'', 3)::BIGINT * 256 + split_part(l.ip, ''.'', 4)::BIGINT AS address
+          FROM endpoint_hit_legacy l
+          WHERE l.ip ~ ''^(25[0-5]|2[0-4][0-9]|1[0-9][0-9]|[1-9]?[0-9])(\.(25[0-5]|2[0-4][0-9]|1[0-9][0-9]|[1-9]?[0-9])){3}$'') o
+    JOIN endpoint e ON e.app = o.app AND e.uri = o.uri;
+
+    INSERT INTO endpoint_hit (endpoint_hit_id, endpoint_id, ip, timestamp)
+    SELECT nextval(''endpoint_hit_seq''), endpoint_id, ip, timestamp FROM legacy_hit;
+
+    INSERT INTO endpoint_hit_minute (endpoint_id, bucket, hits)
+    SELECT endpoint_id, date_trunc(''minute'', timestamp), COUNT(*) FROM legacy_hit GROUP BY 1, 2
+    ON CONFLICT (endpoint_id, bucket) DO UPDATE SET hits = endpoint_hit_minute.hits + EXCLUDED.hits;
+
+    INSERT INTO endpoint_hit_hour (endpoint_id, bucket, hits)
+    SELECT endpoint_id, date_trunc(''hour'', timestamp), COUNT(*) FROM legacy_hit GROUP BY 1, 2
+    ON CONFLICT (endpoint_id, bucket) DO UPDATE SET hits = endpoint_hit_hour.hits + EXCLUDED.hits;
+
+    RAISE NOTICE ''Перенесено хитов из старой таблицы endpoint_hit: %'', (SELECT COUNT(*) FROM legacy_hit);
+    DROP TABLE endpoint_hit_legacy;
+END';
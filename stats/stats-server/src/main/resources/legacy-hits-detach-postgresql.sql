@@ -0,0 +1,7 @@
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass(''endpoint_hit'') AND relkind = ''r'') THEN
+        ALTER TABLE endpoint_hit RENAME TO endpoint_hit_legacy;
+        ALTER TABLE endpoint_hit_legacy RENAME CONSTRAINT endpoint_hit_pkey TO endpoint_hit_legacy_pkey;
+    END IF;
+END';
@@ -1,10 +1,62 @@
 DROP TABLE IF EXISTS endpoint_hit CASCADE;
+DROP TABLE IF EXISTS endpoint_hit_minute CASCADE;
+DROP TABLE IF EXISTS endpoint_hit_hour CASCADE;
+DROP TABLE IF EXISTS endpoint CASCADE;
+DROP TABLE IF EXISTS journal_checkpoint CASCADE;
+DROP SEQUENCE IF EXISTS endpoint_hit_seq;
 
-CREATE TABLE IF NOT EXISTS endpoint_hit
+CREATE SEQUENCE IF NOT EXISTS endpoint_hit_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS endpoint
 (
-    endpoint_hit_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    endpoint_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     app VARCHAR(30) NOT NULL,
     uri VARCHAR(2000) NOT NULL,
-    ip VARCHAR(15) NOT NULL,
-    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+    CONSTRAINT uq_endpoint_app_uri UNIQUE (app, uri)
+);
+
+CREATE TABLE IF NOT EXISTS endpoint_hit
+(
+    endpoint_hit_id BIGINT NOT NULL PRIMARY KEY,
+    endpoint_id INTEGER NOT NULL,
+    ip INTEGER,
+    ip6 BYTEA,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT ck_endpoint_hit_ip CHECK ((ip IS NULL) <> (ip6 IS NULL))
+);
+
+CREATE TABLE IF NOT EXISTS endpoint_hit_minute
+(
+    endpoint_id INTEGER NOT NULL,
+    bucket TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    hits BIGINT NOT NULL,
+    PRIMARY KEY (endpoint_id, bucket)
+);
+
+CREATE TABLE IF NOT EXISTS endpoint_hit_hour
+(
+    endpoint_id INTEGER NOT NULL,
+    bucket TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    hits BIGINT NOT NULL,
+    ip_sketch BYTEA,
+    sketch_hits BIGINT,
+    PRIMARY KEY (endpoint_id, bucket)
+);
+
+CREATE TABLE IF NOT EXISTS journal_checkpoint
+(
+    journal_id VARCHAR(100) NOT NULL,
+    segment_id BIGINT NOT NULL,
+    position INTEGER NOT NULL,
+    PRIMARY KEY (journal_id, segment_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_endpoint_uri ON endpoint (uri);
+
+CREATE INDEX IF NOT EXISTS ix_endpoint_hit_endpoint_timestamp ON endpoint_hit (endpoint_id, timestamp, ip);
+
+CREATE INDEX IF NOT EXISTS ix_endpoint_hit_timestamp ON endpoint_hit (timestamp);
+
+CREATE INDEX IF NOT EXISTS ix_endpoint_hit_minute_bucket ON endpoint_hit_minute (bucket);
+
+CREATE INDEX IF NOT EXISTS ix_endpoint_hit_hour_bucket ON endpoint_hit_hour (bucket);
\ No newline at end of file
@@ -0,0 +1,207 @@
+package ru.practicum.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.practicum.stat.StatsParams;
+import ru.practicum.stat.ViewStatsDTO;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.sql.init.schema-locations=classpath:legacy-hits-detach-postgresql.sql,classpath:schema-postgresql.sql," +
+                "classpath:legacy-hits-convert-postgresql.sql",
+        "stats.sketch.compact-batch=1000",
+        "stats.sketch.compact-interval-ms=3600000"
+})
+class StatIndexUsageTest {
+
+    private static final LocalDateTime STATS_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Autowired
+    private StatService statService;
+
+    @Autowired
+    private SketchService sketchService;
+
+    @Autowired
+    private RecordingDataSource dataSource;
+
+    @Autowired
+    private EmbeddedPostgres postgres;
+
+    @BeforeAll
+    void seed() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO endpoint (app, uri) " +
+                "SELECT 'ewm-main-service', '/events/' || g FROM generate_series(1, 5000) g");
+        jdbcTemplate.update("INSERT INTO endpoint_hit (endpoint_hit_id, endpoint_id, ip, timestamp) " +
+                "SELECT g, 1 + g % 200, g % 3000, " +
+                "date_trunc('hour', LOCALTIMESTAMP) - INTERVAL '48 hours' + g * INTERVAL '1.5 seconds' " +
+                "FROM generate_series(1, 100000) g");
+        jdbcTemplate.update("INSERT INTO endpoint_hit_minute (endpoint_id, bucket, hits) " +
+                "SELECT endpoint_id, date_trunc('minute', timestamp), COUNT(*) FROM endpoint_hit GROUP BY 1, 2");
+        jdbcTemplate.update("INSERT INTO endpoint_hit_hour (endpoint_id, bucket, hits) " +
+                "SELECT endpoint_id, date_trunc('hour', timestamp), COUNT(*) FROM endpoint_hit GROUP BY 1, 2");
+        sketchService.compact();
+        jdbcTemplate.execute("VACUUM ANALYZE");
+    }
+
+    @Test
+    void eventViewsUseIndexes() throws Exception {
+        assertIndexesUsed(StatsParams.builder()
+                .uris(List.of("/events/42"))
+                .unique(true)
+                .start(STATS_START)
+                .end(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void listingViewsUseIndexes() throws Exception {
+        assertIndexesUsed(StatsParams.builder()
+                .uris(IntStream.rangeClosed(1, 10).mapToObj(id -> "/events/" + id * 7).toList())
+                .unique(true)
+                .start(STATS_START)
+                .end(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void hitCountsUseIndexes() throws Exception {
+        assertIndexesUsed(StatsParams.builder()
+                .uris(IntStream.rangeClosed(1, 10).mapToObj(id -> "/events/" + id * 7).toList())
+                .unique(false)
+                .start(LocalDateTime.now().minusHours(30).withSecond(17))
+                .end(LocalDateTime.now())
+                .build());
+    }
+
+    private void assertIndexesUsed(StatsParams params) throws Exception {
+        List<ViewStatsDTO> stats = new ArrayList<>();
+        List<RecordedQuery> queries = dataSource.record(() -> stats.addAll(statService.getStats(params)));
+
+        assertThat(stats).isNotEmpty();
+        assertThat(queries).isNotEmpty();
+        for (RecordedQuery query : queries) {
+            assertThat(explain(query)).as(query.sql()).doesNotContain("Seq Scan");
+        }
+    }
+
+    private String explain(RecordedQuery query) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (RecordedParameter parameter : query.parameters()) {
+                parameter.setter().invoke(statement, parameter.args());
+            }
+            List<String> plan = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+            }
+            return String.join("\n", plan);
+        }
+    }
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        RecordingDataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return new RecordingDataSource(embeddedPostgres.getPostgresDatabase());
+        }
+    }
+
+    static class RecordingDataSource extends DelegatingDataSource {
+
+        private final List<RecordedQuery> queries = new CopyOnWriteArrayList<>();
+        private volatile Thread recordingThread;
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        List<RecordedQuery> record(Runnable action) {
+            queries.clear();
+            recordingThread = Thread.currentThread();
+            try {
+                action.run();
+            } finally {
+                recordingThread = null;
+            }
+            return List.copyOf(queries);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return proxy(Connection.class, connection, (method, args, result) -> {
+                if (!method.getName().equals("prepareStatement") || Thread.currentThread() != recordingThread
+                        || !((String) args[0]).trim().toLowerCase().startsWith("select")) {
+                    return result;
+                }
+                RecordedQuery query = new RecordedQuery((String) args[0], new ArrayList<>());
+                queries.add(query);
+                return proxy(PreparedStatement.class, (PreparedStatement) result, (setter, setterArgs, ignored) -> {
+                    if (setter.getName().startsWith("set") && setterArgs != null && setterArgs.length >= 2
+                            && setterArgs[0] instanceof Integer) {
+                        query.parameters().add(new RecordedParameter(setter, setterArgs));
+                    }
+                    return ignored;
+                });
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        return interceptor.intercept(method, args, result);
+                    }));
+        }
+    }
+
+    interface Interceptor {
+        Object intercept(Method method, Object[] args, Object result) throws Throwable;
+    }
+
+    record RecordedQuery(String sql, List<RecordedParameter> parameters) {
+    }
+
+    record RecordedParameter(Method setter, Object[] args) {
+    }
+}